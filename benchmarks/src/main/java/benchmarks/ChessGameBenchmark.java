@@ -0,0 +1,88 @@
+package benchmarks;
+
+import chess.Bitboards;
+import chess.ChessGame;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The public <code>ChessGame</code> queries the server runs after every move, over the whole position corpus per
+ * call.
+ * <p>
+ * A game caches its legal moves and status until its position changes, so every invocation works on fresh copies of
+ * the corpus; otherwise everything after the first invocation would measure only cache hits. The copies are made
+ * outside the measured time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChessGameBenchmark {
+
+    private ChessGame[] corpus;
+    private ChessGame[] games;
+
+    @Setup
+    public void setUp() {
+        corpus = Positions.games();
+        games = new ChessGame[corpus.length];
+    }
+
+    @Setup(Level.Invocation)
+    public void copyGames() {
+        for (int i = 0; i < corpus.length; i++) {
+            games[i] = new ChessGame(corpus[i]);
+        }
+    }
+
+    @Benchmark
+    public void validMoves(Blackhole blackhole) {
+        for (var game : games) {
+            var board = game.getBoard();
+            for (int square = 0; square < 64; square++) {
+                var piece = board.getPiece(square);
+                if (piece != null && piece.getTeamColor() == game.getTeamTurn()) {
+                    blackhole.consume(game.validMoves(Bitboards.position(square)));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void isInCheck(Blackhole blackhole) {
+        for (var game : games) {
+            blackhole.consume(game.isInCheck(ChessGame.TeamColor.WHITE));
+            blackhole.consume(game.isInCheck(ChessGame.TeamColor.BLACK));
+        }
+    }
+
+    @Benchmark
+    public void isInCheckmate(Blackhole blackhole) {
+        for (var game : games) {
+            blackhole.consume(game.isInCheckmate(ChessGame.TeamColor.WHITE));
+            blackhole.consume(game.isInCheckmate(ChessGame.TeamColor.BLACK));
+        }
+    }
+
+    @Benchmark
+    public void isInStalemate(Blackhole blackhole) {
+        for (var game : games) {
+            blackhole.consume(game.isInStalemate(ChessGame.TeamColor.WHITE));
+            blackhole.consume(game.isInStalemate(ChessGame.TeamColor.BLACK));
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.Evaluation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluation throughput, one operation being a pass over the whole position corpus: <code>evaluate</code> reads the
+ * totals the board keeps up to date, <code>evaluateFromScratch</code> rescans every piece, as evaluation did before
+ * the totals were incremental. Multiply by the corpus size for evaluations per second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluationBenchmark {
+
+    private ChessGame[] games;
+
+    @Setup
+    public void setUp() {
+        games = Positions.games();
+    }
+
+    @Benchmark
+    public void evaluate(Blackhole blackhole) {
+        for (var game : games) {
+            blackhole.consume(Evaluation.evaluate(game.getBoard(), game.getTeamTurn()));
+        }
+    }
+
+    @Benchmark
+    public void evaluateFromScratch(Blackhole blackhole) {
+        for (var game : games) {
+            blackhole.consume(Evaluation.evaluateFromScratch(game.getBoard(), game.getTeamTurn()));
+        }
+    }
+}
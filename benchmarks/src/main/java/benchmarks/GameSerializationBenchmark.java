@@ -0,0 +1,56 @@
+package benchmarks;
+
+import chess.ChessGame;
+import dataAccess.SQLGameDAO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The conversion between <code>ChessGame</code> and the <code>gameState</code> column that
+ * <code>SQLGameDAO</code> does on every read and write, without the database round trip
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameSerializationBenchmark {
+
+    private ChessGame[] games;
+    private byte[][] serializedGames;
+
+    @Setup
+    public void setUp() {
+        games = Positions.games();
+        serializedGames = new byte[games.length][];
+        for (int i = 0; i < games.length; i++) {
+            serializedGames[i] = SQLGameDAO.serializeGame(games[i]);
+        }
+    }
+
+    @Benchmark
+    public void serializeGame(Blackhole blackhole) {
+        for (var game : games) {
+            blackhole.consume(SQLGameDAO.serializeGame(game));
+        }
+    }
+
+    @Benchmark
+    public void deserializeGame(Blackhole blackhole) {
+        for (var serializedGame : serializedGames) {
+            blackhole.consume(SQLGameDAO.deserializeGame(serializedGame));
+        }
+    }
+}
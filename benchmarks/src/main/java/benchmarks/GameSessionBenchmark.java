@@ -0,0 +1,111 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import dataAccess.MemoryAuthDAO;
+import dataAccess.MemoryGameDAO;
+import dataAccess.MemoryUserDAO;
+import exception.ResponseException;
+import model.GameData;
+import org.eclipse.jetty.websocket.api.Session;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import schema.request.CreateGameRequest;
+import schema.request.JoinGameRequest;
+import schema.request.RegisterRequest;
+import service.AuthService;
+import service.GameService;
+import service.UserService;
+import websocket.Connection;
+import websocket.GameSession;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <code>GameSession.makeMove</code> end to end against the in-memory DAOs: authentication, reading the game,
+ * validating and applying the move, the game-over checks and writing the game back. Each invocation replays
+ * Scholar's Mate from a fresh game, so ordinary moves, a capture and a checkmate are all included; the reported time
+ * is per move.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameSessionBenchmark {
+
+    private static final String[] SCHOLARS_MATE = {"e2e4", "e7e5", "f1c4", "b8c6", "d1h5", "g8f6", "h5f7"};
+
+    private MemoryGameDAO gameDAO;
+    private GameSession gameSession;
+    private GameData gameData;
+    private String whiteAuthToken;
+    private String blackAuthToken;
+    private ChessMove[] moves;
+
+    @Setup
+    public void setUp() throws ResponseException {
+        var authDAO = new MemoryAuthDAO();
+        gameDAO = new MemoryGameDAO();
+        var userService = new UserService(new MemoryUserDAO(), authDAO);
+        var gameService = new GameService(gameDAO, new AuthService(authDAO));
+
+        whiteAuthToken = userService.register(new RegisterRequest("white", "password", "white@mail.com")).authToken();
+        blackAuthToken = userService.register(new RegisterRequest("black", "password", "black@mail.com")).authToken();
+        var gameID = gameService.createGame(new CreateGameRequest(whiteAuthToken, "benchmark")).gameID();
+        gameService.joinGame(new JoinGameRequest(whiteAuthToken, "WHITE", gameID));
+        gameData = gameService.joinGame(new JoinGameRequest(blackAuthToken, "BLACK", gameID)).gameData();
+
+        gameSession = new GameSession(gameID, gameService, userService);
+        gameSession.addPlayer(new Connection(whiteAuthToken, openSession()), ChessGame.TeamColor.WHITE);
+        gameSession.addPlayer(new Connection(blackAuthToken, openSession()), ChessGame.TeamColor.BLACK);
+
+        moves = new ChessMove[SCHOLARS_MATE.length];
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = move(SCHOLARS_MATE[i]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(7)
+    public void makeMove(Blackhole blackhole) throws Exception {
+        gameDAO.updateGame(new GameData(gameData.gameID(), gameData.whiteUsername(), gameData.blackUsername(),
+                                        gameData.gameName(), new ChessGame()));
+        for (int i = 0; i < moves.length; i++) {
+            var authToken = i % 2 == 0 ? whiteAuthToken : blackAuthToken;
+            blackhole.consume(gameSession.makeMove(authToken, moves[i]));
+        }
+    }
+
+    private static ChessMove move(String move) {
+        return new ChessMove(ChessPosition.of(move.charAt(1) - '0', move.charAt(0) - 'a' + 1),
+                             ChessPosition.of(move.charAt(3) - '0', move.charAt(2) - 'a' + 1), null);
+    }
+
+    /**
+     * A websocket session that stays open and ignores everything else, since no messages are sent here
+     */
+    private static Session openSession() {
+        return (Session) Proxy.newProxyInstance(Session.class.getClassLoader(), new Class<?>[]{Session.class},
+                                                (proxy, method, args) -> switch (method.getName()) {
+                                                    case "isOpen" -> true;
+                                                    case "hashCode" -> System.identityHashCode(proxy);
+                                                    case "equals" -> proxy == args[0];
+                                                    case "toString" -> "OpenSession";
+                                                    default -> null;
+                                                });
+    }
+}
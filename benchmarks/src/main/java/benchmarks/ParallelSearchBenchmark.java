@@ -0,0 +1,76 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.ParallelSearch;
+import chess.Perft;
+import chess.SearchLimits;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nodes per second of a <code>ParallelSearch</code> by thread count, which is its scaling curve. Each invocation is
+ * a fixed-time search of the middlegame reference positions; read the <code>nodes</code> row, which counts every
+ * thread's nodes, and compare it across the <code>threads</code> values:
+ * <pre>
+ *     java -jar benchmarks/target/benchmarks.jar ParallelSearch -p threads=1,2,4,8,16
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ParallelSearchBenchmark {
+
+    private static final Perft.Reference[] POSITIONS = {Perft.Reference.KIWIPETE, Perft.Reference.POSITION_4,
+            Perft.Reference.POSITION_5, Perft.Reference.POSITION_6};
+
+    @Param({"1", "2", "4", "8", "16"})
+    public int threads;
+
+    private ChessGame[] games;
+    private ParallelSearch search;
+    private int next;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        public long nodes;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        games = new ChessGame[POSITIONS.length];
+        for (int i = 0; i < games.length; i++) {
+            games[i] = POSITIONS[i].game();
+        }
+        search = new ParallelSearch(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        search.close();
+    }
+
+    @Benchmark
+    public void search(Counters counters) {
+        search.getTable().clear();
+        var game = games[next++ % games.length];
+        counters.nodes += search.search(game, SearchLimits.time(200)).nodes();
+    }
+}
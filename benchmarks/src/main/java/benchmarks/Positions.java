@@ -0,0 +1,36 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.Fen;
+import chess.Perft;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The positions the benchmarks run over: the perft reference positions, which are busy middlegames, plus a few
+ * that end or nearly end a game, so the checkmate and stalemate paths are measured on both outcomes.
+ */
+public final class Positions {
+
+    public static final String CHECKMATE = "rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3";
+    public static final String STALEMATE = "7k/5Q2/6K1/8/8/8/8/8 b - - 0 1";
+    public static final String CHECK = "4k3/8/8/8/8/8/4R3/4K3 b - - 0 1";
+    public static final String PAWN_ENDGAME = "8/8/4k3/8/2P5/8/4K3/8 w - - 0 1";
+
+    private Positions() {
+    }
+
+    public static List<String> fens() {
+        var fens = new ArrayList<String>();
+        for (var reference : Perft.Reference.values()) {
+            fens.add(reference.getFen());
+        }
+        fens.addAll(List.of(CHECKMATE, STALEMATE, CHECK, PAWN_ENDGAME));
+        return fens;
+    }
+
+    public static ChessGame[] games() {
+        return fens().stream().map(Fen::parse).toArray(ChessGame[]::new);
+    }
+}
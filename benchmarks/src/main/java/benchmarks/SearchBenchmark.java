@@ -0,0 +1,53 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.Perft;
+import chess.Search;
+import chess.SearchLimits;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A fixed-depth <code>Search</code> of each perft reference position, starting from an empty transposition table
+ * every time, so the reported time is what a computer opponent needs to reach that depth
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+    @Param({"START", "KIWIPETE", "POSITION_3", "POSITION_4", "POSITION_5", "POSITION_6"})
+    public String position;
+
+    @Param({"4", "6"})
+    public int depth;
+
+    private ChessGame game;
+    private Search search;
+
+    @Setup
+    public void setUp() {
+        game = Perft.Reference.valueOf(position).game();
+        search = new Search();
+    }
+
+    @Benchmark
+    public long search() {
+        search.getTable().clear();
+        return search.search(game, SearchLimits.depth(depth)).nodes();
+    }
+}
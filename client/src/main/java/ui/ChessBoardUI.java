@@ -31,11 +31,11 @@ public class ChessBoardUI {
         var ui = new ChessBoardUI();
         var board = new ChessBoard();
         board.resetBoard();
-        board.addPiece(new ChessPosition(4, 2), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
-        var startPos = new ChessPosition(7, 4);
+        board.addPiece(ChessPosition.of(4, 2), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        var startPos = ChessPosition.of(7, 4);
         var endPositions = new HashSet<ChessPosition>();
-        endPositions.add(new ChessPosition(6, 4));
-        endPositions.add(new ChessPosition(5, 4));
+        endPositions.add(ChessPosition.of(6, 4));
+        endPositions.add(ChessPosition.of(5, 4));
         var displayString = ui.buildChessBoardDisplayString(board, ChessGame.TeamColor.WHITE, startPos, endPositions);
         out.println(displayString);
         out.println();
@@ -91,7 +91,7 @@ public class ChessBoardUI {
         var bg1 = startBg1;
         for (var col = 1; col <= 8; col++) {
             var background = bg1 ? CELL_BG_1 : CELL_BG_2;
-            var position = new ChessPosition(row, whitePerspective ? col : 9 - col);
+            var position = ChessPosition.of(row, whitePerspective ? col : 9 - col);
             if (position.equals(startPosition)) {
                 background = CELL_BG_START_POS;
             } else if (endPositions != null && endPositions.contains(position)) {
@@ -131,7 +131,7 @@ public class GameUI implements ServerMessageObserver {
         }
         var input = matcher.group();
         input = input.toLowerCase();
-        var startPosition = new ChessPosition(input.charAt(1) - '1' + 1, input.charAt(0) - 'a' + 1);
+        var startPosition = ChessPosition.of(input.charAt(1) - '1' + 1, input.charAt(0) - 'a' + 1);
         drawCurrentBoardWithValidMoves(startPosition);
     }
 
@@ -158,8 +158,8 @@ public class GameUI implements ServerMessageObserver {
     private MakeMove getMakeMove(Matcher matcher) {
         var input = matcher.group();
         input = input.toLowerCase();
-        var startPosition = new ChessPosition(input.charAt(1) - '1' + 1, input.charAt(0) - 'a' + 1);
-        var endPosition = new ChessPosition(input.charAt(3) - '1' + 1, input.charAt(2) - 'a' + 1);
+        var startPosition = ChessPosition.of(input.charAt(1) - '1' + 1, input.charAt(0) - 'a' + 1);
+        var endPosition = ChessPosition.of(input.charAt(3) - '1' + 1, input.charAt(2) - 'a' + 1);
         var promotionPiece = getPromotionPiece(input);
         var move = new ChessMove(startPosition, endPosition, promotionPiece);
         return new MakeMove(authToken, currentGame.gameID(), move);
@@ -2,7 +2,7 @@ package ui;
 
 import chess.ChessGame;
 import exception.ResponseException;
-import model.GameData;
+import model.GameSummary;
 import observer.ServerMessageObserver;
 import schema.request.*;
 import schema.response.RegisterResponse;
@@ -24,7 +24,7 @@ public class MenuUI implements ServerMessageObserver {
     private final GameUI gameUI;
     private String username;
     private String authToken;
-    private List<GameData> games = new ArrayList<>();
+    private List<GameSummary> games = new ArrayList<>();
 
     public MenuUI(ServerFacade serverFacade) {
         out = new PrintStream(System.out, true, StandardCharsets.UTF_8);
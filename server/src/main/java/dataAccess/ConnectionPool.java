@@ -0,0 +1,447 @@
+package dataAccess;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A fixed-bound pool of JDBC connections.
+ * <p>
+ * {@link #getConnection()} lends a connection whose <code>close()</code> gives it back to the pool instead of closing
+ * it, so callers use it in a try-with-resources block exactly as they would a connection of their own. Callers wait,
+ * up to {@link Settings#connectionTimeoutMillis()}, when all {@link Settings#maxSize()} connections are lent out.
+ * <p>
+ * A connection that has sat idle longer than {@link Settings#validationIntervalMillis()} is checked with
+ * <code>isValid</code> before it is lent again, and replaced if the check fails. A background thread keeps at least
+ * {@link Settings#minSize()} connections open, closes idle ones above that after {@link Settings#idleTimeoutMillis()},
+ * and logs, with the stack trace of the borrower, any connection lent out longer than
+ * {@link Settings#leakDetectionMillis()}.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    private static final Logger logger = Logger.getLogger("ConnectionPool");
+
+    /**
+     * Opens a new physical connection
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection connect() throws SQLException;
+    }
+
+    /**
+     * @param minSize                  connections kept open even when idle
+     * @param maxSize                  connections open at most, lent out or idle
+     * @param connectionTimeoutMillis  how long {@link #getConnection()} waits for a connection before failing
+     * @param validationIntervalMillis how long a connection may sit idle before it is checked before being lent
+     * @param validationTimeoutSeconds how long the check may take
+     * @param idleTimeoutMillis        how long a connection above <code>minSize</code> may sit idle before it is closed
+     * @param leakDetectionMillis      how long a connection may be lent out before it is logged as leaked, or 0 to
+     *                                 not check
+     */
+    public record Settings(int minSize, int maxSize, long connectionTimeoutMillis, long validationIntervalMillis,
+                           int validationTimeoutSeconds, long idleTimeoutMillis, long leakDetectionMillis) {
+        public Settings {
+            if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+                throw new IllegalArgumentException("Pool sizes must satisfy 0 <= min <= max and max >= 1");
+            }
+        }
+
+        public static Settings defaults() {
+            return new Settings(2, 10, 5_000, 1_000, 2, 600_000, 0);
+        }
+    }
+
+    /**
+     * A snapshot of the pool's counters
+     *
+     * @param active         connections lent out now
+     * @param idle           connections open and waiting to be lent
+     * @param waiting        callers waiting for a connection now
+     * @param borrows        connections lent since the pool started
+     * @param timeouts       callers that gave up waiting
+     * @param leaks          connections logged as leaked
+     * @param totalWaitNanos time callers have spent waiting for a connection, in total
+     * @param maxWaitNanos   the longest a caller has waited
+     */
+    public record Metrics(int active, int idle, int waiting, long borrows, long timeouts, long leaks,
+                          long totalWaitNanos, long maxWaitNanos) {
+        public long averageWaitNanos() {
+            return borrows == 0 ? 0 : totalWaitNanos / borrows;
+        }
+    }
+
+    /**
+     * A physical connection and what the pool knows about it
+     */
+    private static final class Entry {
+        final Connection connection;
+        long lastReturnedNanos = System.nanoTime();
+        long borrowedNanos;
+        Throwable borrower;
+        boolean leakReported;
+
+        Entry(Connection connection) {
+            this.connection = connection;
+        }
+    }
+
+    private final ConnectionFactory factory;
+    private final Settings settings;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    /**
+     * Most recently returned last, so the connections lent are the ones most likely to still be valid
+     */
+    private final ArrayDeque<Entry> idle = new ArrayDeque<>();
+    private final Set<Entry> active = ConcurrentHashMap.newKeySet();
+    /**
+     * Connections open or being opened, guarded by <code>lock</code>
+     */
+    private int size = 0;
+    private int waiting = 0;
+    private long borrows = 0;
+    private long timeouts = 0;
+    private long leaks = 0;
+    private long totalWaitNanos = 0;
+    private long maxWaitNanos = 0;
+    private boolean closed = false;
+
+    private final ScheduledExecutorService housekeeper;
+
+    public ConnectionPool(ConnectionFactory factory, Settings settings) {
+        this.factory = factory;
+        this.settings = settings;
+        housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        var period = settings.leakDetectionMillis() > 0
+                     ? Math.min(settings.leakDetectionMillis(), settings.idleTimeoutMillis())
+                     : settings.idleTimeoutMillis();
+        var delay = Math.max(period / 2, 100);
+        housekeeper.scheduleWithFixedDelay(this::houseKeep, 0, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Lends a connection; close it to give it back
+     *
+     * @throws DataAccessException if no connection becomes free in time, or a new one cannot be opened
+     */
+    public Connection getConnection() throws DataAccessException {
+        var start = System.nanoTime();
+        var deadline = start + TimeUnit.MILLISECONDS.toNanos(settings.connectionTimeoutMillis());
+        while (true) {
+            Entry entry = null;
+            var create = false;
+            lock.lock();
+            try {
+                while (!closed && idle.isEmpty() && size >= settings.maxSize()) {
+                    var remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        timeouts++;
+                        throw new DataAccessException("Timed out after " + settings.connectionTimeoutMillis() +
+                                                      " ms waiting for a database connection");
+                    }
+                    waiting++;
+                    try {
+                        available.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new DataAccessException("Interrupted waiting for a database connection");
+                    } finally {
+                        waiting--;
+                    }
+                }
+                if (closed) throw new DataAccessException("Connection pool is closed");
+                if (!idle.isEmpty()) {
+                    entry = idle.pollLast();
+                } else {
+                    size++;
+                    create = true;
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (create) {
+                entry = open();
+            } else if (!isUsable(entry)) {
+                discard(entry);
+                continue;
+            }
+            return lend(entry, start);
+        }
+    }
+
+    /**
+     * @return the pool's counters now
+     */
+    public Metrics getMetrics() {
+        lock.lock();
+        try {
+            return new Metrics(active.size(), idle.size(), waiting, borrows, timeouts, leaks, totalWaitNanos,
+                               maxWaitNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes the idle connections now and each lent connection when it is given back
+     */
+    @Override
+    public void close() {
+        housekeeper.shutdownNow();
+        lock.lock();
+        try {
+            closed = true;
+            available.signalAll();
+            while (!idle.isEmpty()) {
+                closeQuietly(idle.poll());
+                size--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Opens a connection for a slot already counted in <code>size</code>
+     */
+    private Entry open() throws DataAccessException {
+        try {
+            return new Entry(factory.connect());
+        } catch (SQLException | RuntimeException e) {
+            lock.lock();
+            try {
+                size--;
+                available.signal();
+            } finally {
+                lock.unlock();
+            }
+            throw new DataAccessException("Could not open a database connection: " + e.getMessage());
+        }
+    }
+
+    private boolean isUsable(Entry entry) {
+        if (System.nanoTime() - entry.lastReturnedNanos < TimeUnit.MILLISECONDS.toNanos(
+                settings.validationIntervalMillis())) {
+            return true;
+        }
+        try {
+            return entry.connection.isValid(settings.validationTimeoutSeconds());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private Connection lend(Entry entry, long start) {
+        var now = System.nanoTime();
+        entry.borrowedNanos = now;
+        entry.leakReported = false;
+        entry.borrower = settings.leakDetectionMillis() > 0 ? new Throwable("Connection borrowed here") : null;
+        active.add(entry);
+        lock.lock();
+        try {
+            var waited = now - start;
+            borrows++;
+            totalWaitNanos += waited;
+            maxWaitNanos = Math.max(maxWaitNanos, waited);
+        } finally {
+            lock.unlock();
+        }
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                                                   new Lent(entry));
+    }
+
+    /**
+     * Takes a connection back, rolling back anything the borrower left uncommitted
+     */
+    private void giveBack(Entry entry) {
+        active.remove(entry);
+        var reusable = true;
+        try {
+            if (entry.connection.isClosed()) {
+                reusable = false;
+            } else if (!entry.connection.getAutoCommit()) {
+                entry.connection.rollback();
+                entry.connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            reusable = false;
+        }
+        if (!reusable) {
+            discard(entry);
+            return;
+        }
+
+        lock.lock();
+        try {
+            if (closed) {
+                closeQuietly(entry);
+                size--;
+                return;
+            }
+            entry.lastReturnedNanos = System.nanoTime();
+            entry.borrower = null;
+            idle.addLast(entry);
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void discard(Entry entry) {
+        closeQuietly(entry);
+        lock.lock();
+        try {
+            size--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void houseKeep() {
+        try {
+            reportLeaks();
+            closeIdle();
+            fillToMinimum();
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Connection pool housekeeping failed", e);
+        }
+    }
+
+    private void reportLeaks() {
+        if (settings.leakDetectionMillis() <= 0) return;
+        var threshold = TimeUnit.MILLISECONDS.toNanos(settings.leakDetectionMillis());
+        var now = System.nanoTime();
+        for (var entry : active) {
+            if (entry.leakReported || now - entry.borrowedNanos < threshold) continue;
+            entry.leakReported = true;
+            lock.lock();
+            try {
+                leaks++;
+            } finally {
+                lock.unlock();
+            }
+            logger.log(Level.WARNING, "Database connection lent out for more than " +
+                                      settings.leakDetectionMillis() + " ms; possible leak", entry.borrower);
+        }
+    }
+
+    private void closeIdle() {
+        var threshold = TimeUnit.MILLISECONDS.toNanos(settings.idleTimeoutMillis());
+        var now = System.nanoTime();
+        lock.lock();
+        try {
+            // the oldest returned are at the front
+            while (size > settings.minSize() && !idle.isEmpty()
+                    && now - idle.peekFirst().lastReturnedNanos > threshold) {
+                closeQuietly(idle.pollFirst());
+                size--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void fillToMinimum() {
+        while (true) {
+            lock.lock();
+            try {
+                if (closed || size >= settings.minSize()) return;
+                size++;
+            } finally {
+                lock.unlock();
+            }
+            Entry entry;
+            try {
+                entry = open();
+            } catch (DataAccessException e) {
+                logger.fine(e.getMessage());
+                return;
+            }
+            lock.lock();
+            try {
+                if (closed) {
+                    closeQuietly(entry);
+                    size--;
+                    return;
+                }
+                idle.addFirst(entry);
+                available.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static void closeQuietly(Entry entry) {
+        try {
+            entry.connection.close();
+        } catch (SQLException e) {
+            logger.fine("Error closing database connection: " + e.getMessage());
+        }
+    }
+
+    /**
+     * The connection a borrower sees: everything goes to the physical connection except <code>close</code>, and
+     * nothing works once it has been closed
+     */
+    private final class Lent implements InvocationHandler {
+        private Entry entry;
+
+        Lent(Entry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (entry != null) {
+                        var returned = entry;
+                        entry = null;
+                        giveBack(returned);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return entry == null || entry.connection.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "Pooled " + (entry == null ? "closed connection" : entry.connection);
+                }
+            }
+            if (entry == null) throw new SQLException("Connection is closed");
+            try {
+                return method.invoke(entry.connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -3,14 +3,22 @@ package dataAccess;
 import java.sql.*;
 import java.util.Properties;
 
-public class DatabaseManager {
+/**
+ * Creates the database and its tables, and lends connections to it from a {@link ConnectionPool}.
+ * <p>
+ * The pool is configured by optional <code>db.pool.*</code> properties in db.properties:
+ * <code>minSize</code>, <code>maxSize</code>, <code>connectionTimeoutMillis</code>,
+ * <code>validationIntervalMillis</code>, <code>validationTimeoutSeconds</code>, <code>idleTimeoutMillis</code> and
+ * <code>leakDetectionMillis</code>. Any that are missing take the values of {@link ConnectionPool.Settings#defaults()}.
+ */
+public class DatabaseManager implements AutoCloseable {
     private final String databaseName;
     private final String user;
     private final String password;
     private final String connectionUrl;
+    private final ConnectionPool.Settings poolSettings;
 
-    private Connection connection = null;
-    private boolean databaseInitialized = false;
+    private ConnectionPool pool = null;
 
     public DatabaseManager() {
         try (var propStream = Thread.currentThread().getContextClassLoader().getResourceAsStream("db.properties")) {
@@ -24,19 +32,37 @@ public class DatabaseManager {
             var host = props.getProperty("db.host");
             var port = Integer.parseInt(props.getProperty("db.port"));
             connectionUrl = String.format("jdbc:mysql://%s:%d", host, port);
+            poolSettings = poolSettings(props);
         } catch (Exception ex) {
             throw new RuntimeException("unable to process db.properties. " + ex.getMessage());
         }
     }
 
+    private static ConnectionPool.Settings poolSettings(Properties props) {
+        var defaults = ConnectionPool.Settings.defaults();
+        return new ConnectionPool.Settings(
+                Integer.parseInt(props.getProperty("db.pool.minSize", Integer.toString(defaults.minSize()))),
+                Integer.parseInt(props.getProperty("db.pool.maxSize", Integer.toString(defaults.maxSize()))),
+                Long.parseLong(props.getProperty("db.pool.connectionTimeoutMillis",
+                                                 Long.toString(defaults.connectionTimeoutMillis()))),
+                Long.parseLong(props.getProperty("db.pool.validationIntervalMillis",
+                                                 Long.toString(defaults.validationIntervalMillis()))),
+                Integer.parseInt(props.getProperty("db.pool.validationTimeoutSeconds",
+                                                   Integer.toString(defaults.validationTimeoutSeconds()))),
+                Long.parseLong(props.getProperty("db.pool.idleTimeoutMillis",
+                                                 Long.toString(defaults.idleTimeoutMillis()))),
+                Long.parseLong(props.getProperty("db.pool.leakDetectionMillis",
+                                                 Long.toString(defaults.leakDetectionMillis()))));
+    }
+
     /**
      * Creates the database if it does not already exist.
      */
     private void createDatabase() throws DataAccessException {
         try {
             var statement = "CREATE DATABASE IF NOT EXISTS " + databaseName;
-            var conn = DriverManager.getConnection(connectionUrl, user, password);
-            try (var preparedStatement = conn.prepareStatement(statement)) {
+            try (var conn = DriverManager.getConnection(connectionUrl, user, password);
+                 var preparedStatement = conn.prepareStatement(statement)) {
                 preparedStatement.executeUpdate();
             }
         } catch (SQLException e) {
@@ -68,33 +94,52 @@ public class DatabaseManager {
                         whiteUsername VARCHAR(255),
                         blackUsername VARCHAR(255),
                         gameName VARCHAR(255) NOT NULL,
-                        gameState VARCHAR(2048),
+                        gameState VARBINARY(255),
+                        snapshotPly INT NOT NULL DEFAULT 0,
+                        ended BOOLEAN NOT NULL DEFAULT FALSE,
                         PRIMARY KEY (id)
                     );
+                    """,
+                    """
+                    CREATE TABLE IF NOT EXISTS game_move (
+                        gameID INT NOT NULL,
+                        ply INT NOT NULL,
+                        move SMALLINT NOT NULL,
+                        PRIMARY KEY (gameID, ply)
+                    );
                     """};
-            var conn = DriverManager.getConnection(connectionUrl, user, password);
-            conn.setCatalog(databaseName);
-            for (var statement : statements) {
-                try (var preparedStatement = conn.prepareStatement(statement)) {
-                    preparedStatement.executeUpdate();
+            try (var conn = openConnection()) {
+                for (var statement : statements) {
+                    try (var preparedStatement = conn.prepareStatement(statement)) {
+                        preparedStatement.executeUpdate();
+                    }
                 }
+                SQLGameDAO.migrateGameState(conn);
+                SQLGameDAO.migrateSnapshotPly(conn);
+                SQLGameDAO.migrateEnded(conn);
             }
         } catch (SQLException e) {
             throw new DataAccessException(e.getMessage());
         }
     }
 
-    public void initializeDatabase() throws DataAccessException {
-        if (databaseInitialized) return;
+    private Connection openConnection() throws SQLException {
+        var conn = DriverManager.getConnection(connectionUrl, user, password);
+        conn.setCatalog(databaseName);
+        return conn;
+    }
+
+    public synchronized void initializeDatabase() throws DataAccessException {
+        if (pool != null) return;
         createDatabase();
         createTables();
-        databaseInitialized = true;
+        pool = new ConnectionPool(this::openConnection, poolSettings);
     }
 
     public void clearTables() throws DataAccessException {
-        try {
-            var conn = getConnection();
-            String[] statements = {"TRUNCATE TABLE game", "TRUNCATE TABLE auth", "TRUNCATE TABLE user"};
+        try (var conn = getConnection()) {
+            String[] statements = {"TRUNCATE TABLE game_move", "TRUNCATE TABLE game", "TRUNCATE TABLE auth",
+                    "TRUNCATE TABLE user"};
             for (var statement : statements) {
                 try (var preparedStatement = conn.prepareStatement(statement)) {
                     preparedStatement.executeUpdate();
@@ -106,28 +151,34 @@ public class DatabaseManager {
     }
 
     /**
-     * Create a connection to the database and sets the catalog based upon the
-     * properties specified in db.properties. Connections to the database should
-     * be short-lived, and you must close the connection when you are done with it.
+     * Lends a connection to the database from the pool, with the catalog set from
+     * db.properties. Connections should be short-lived, and you must close the
+     * connection when you are done with it, which gives it back to the pool.
      * The easiest way to do that is with a try-with-resource block.
      * <br/>
      * <code>
-     * try (var conn = DbInfo.getConnection(databaseName)) {
+     * try (var conn = databaseManager.getConnection()) {
      * // execute SQL statements.
      * }
      * </code>
      */
     public Connection getConnection() throws DataAccessException {
         initializeDatabase();
-        try {
-            if (connection != null && connection.isValid(0)) {
-                return connection;
-            }
-            connection = DriverManager.getConnection(connectionUrl, user, password);
-            connection.setCatalog(databaseName);
-            return connection;
-        } catch (SQLException e) {
-            throw new DataAccessException(e.getMessage());
-        }
+        return pool.getConnection();
+    }
+
+    /**
+     * @return the pool's counters, or null if no connection has been asked for yet
+     */
+    public synchronized ConnectionPool.Metrics getPoolMetrics() {
+        return pool == null ? null : pool.getMetrics();
+    }
+
+    /**
+     * Closes the pool's connections
+     */
+    @Override
+    public synchronized void close() {
+        if (pool != null) pool.close();
     }
 }
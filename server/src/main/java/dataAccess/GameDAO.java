@@ -1,17 +1,45 @@
 package dataAccess;
 
+import chess.ChessMove;
 import model.GameData;
+import model.GameFilter;
+import model.GameSummary;
 
-import java.util.Collection;
+import java.util.List;
 
 public interface GameDAO {
     GameData createGame(String gameName) throws DataAccessException;
 
     GameData readGame(int gameID) throws DataAccessException;
 
-    Collection<GameData> listGames() throws DataAccessException;
+    /**
+     * Lists games without reading their boards, one page at a time in order of ID
+     *
+     * @param filter   which games to list
+     * @param username the user asking, for {@link GameFilter#MINE}
+     * @param afterID  list only games with a higher ID
+     * @param limit    the most games to list
+     */
+    List<GameSummary> listGameSummaries(GameFilter filter, String username, int afterID, int limit)
+            throws DataAccessException;
 
     void updateGame(GameData gameData) throws DataAccessException;
 
+    /**
+     * Records a move made in a game. Unlike {@link #updateGame}, only the game's state is stored, not its names.
+     *
+     * @param gameData the game after the move was made
+     * @param move     the move
+     */
+    void appendMove(GameData gameData, ChessMove move) throws DataAccessException;
+
+    /**
+     * Records several moves made in a game, in the order they were made
+     *
+     * @param gameData the game after the last of the moves was made
+     * @param moves    the moves
+     */
+    void appendMoves(GameData gameData, List<ChessMove> moves) throws DataAccessException;
+
     void clear() throws DataAccessException;
 }
@@ -1,10 +1,15 @@
 package dataAccess;
 
 import chess.ChessGame;
+import chess.ChessMove;
 import model.GameData;
+import model.GameFilter;
+import model.GameSummary;
 
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.List;
 
 public class MemoryGameDAO implements GameDAO{
 
@@ -28,8 +33,25 @@ public class MemoryGameDAO implements GameDAO{
     }
 
     @Override
-    public Collection<GameData> listGames() {
-        return gameDataCollection;
+    public List<GameSummary> listGameSummaries(GameFilter filter, String username, int afterID, int limit) {
+        return gameDataCollection.stream()
+                .filter(g -> g.gameID() > afterID && matches(g, filter, username))
+                .sorted(Comparator.comparingInt(GameData::gameID))
+                .limit(limit)
+                .map(GameSummary::of)
+                .toList();
+    }
+
+    private static boolean matches(GameData gameData, GameFilter filter, String username) {
+        var ended = gameData.game().isEnded();
+        var seatsTaken = (gameData.whiteUsername() == null ? 0 : 1) + (gameData.blackUsername() == null ? 0 : 1);
+        return switch (filter) {
+            case ALL -> true;
+            case OPEN -> !ended && seatsTaken < 2;
+            case MINE -> username != null
+                    && (username.equals(gameData.whiteUsername()) || username.equals(gameData.blackUsername()));
+            case IN_PROGRESS -> !ended && seatsTaken == 2;
+        };
     }
 
     @Override
@@ -41,6 +63,16 @@ public class MemoryGameDAO implements GameDAO{
         gameDataCollection.add(gameData);
     }
 
+    @Override
+    public void appendMove(GameData gameData, ChessMove move) throws DataAccessException {
+        updateGame(gameData);
+    }
+
+    @Override
+    public void appendMoves(GameData gameData, List<ChessMove> moves) throws DataAccessException {
+        updateGame(gameData);
+    }
+
     @Override
     public void clear() {
         gameDataCollection.clear();
@@ -26,8 +26,8 @@ public class SQLAuthDAO implements AuthDAO {
         AuthData authData = new AuthData(authToken, userData.username());
         try {
             var statement = "INSERT INTO auth (authToken, username) VALUES (?, ?)";
-            var conn = databaseManager.getConnection();
-            try (var preparedStatement = conn.prepareStatement(statement)) {
+            try (var conn = databaseManager.getConnection();
+                 var preparedStatement = conn.prepareStatement(statement)) {
                 preparedStatement.setString(1, authData.authToken());
                 preparedStatement.setString(2, authData.username());
 
@@ -44,8 +44,8 @@ public class SQLAuthDAO implements AuthDAO {
     public AuthData readAuth(String authToken) throws DataAccessException {
         try {
             var statement = "SELECT username FROM auth WHERE authToken = ?";
-            var conn = databaseManager.getConnection();
-            try (var preparedStatement = conn.prepareStatement(statement)) {
+            try (var conn = databaseManager.getConnection();
+                 var preparedStatement = conn.prepareStatement(statement)) {
                 preparedStatement.setString(1, authToken);
                 try (var rs = preparedStatement.executeQuery()) {
                     if (rs.next()) {
@@ -64,8 +64,8 @@ public class SQLAuthDAO implements AuthDAO {
     public void deleteAuth(String authToken) throws DataAccessException {
         try {
             var statement = "DELETE FROM auth WHERE authToken = ?";
-            var conn = databaseManager.getConnection();
-            try (var preparedStatement = conn.prepareStatement(statement)) {
+            try (var conn = databaseManager.getConnection();
+                 var preparedStatement = conn.prepareStatement(statement)) {
                 preparedStatement.setString(1, authToken);
                 preparedStatement.executeUpdate();
             }
@@ -78,8 +78,8 @@ public class SQLAuthDAO implements AuthDAO {
     public void clear() throws DataAccessException {
         try {
             var statement = "TRUNCATE TABLE auth";
-            var conn = databaseManager.getConnection();
-            try (var preparedStatement = conn.prepareStatement(statement)) {
+            try (var conn = databaseManager.getConnection();
+                 var preparedStatement = conn.prepareStatement(statement)) {
                 preparedStatement.executeUpdate();
             }
         } catch (SQLException e) {
@@ -1,30 +1,170 @@
 package dataAccess;
 
 import chess.ChessGame;
+import chess.ChessMove;
+import chess.GameCodec;
+import chess.InvalidMoveException;
+import chess.Move;
 import com.google.gson.Gson;
 import model.GameData;
+import model.GameFilter;
+import model.GameSummary;
 
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.util.Collection;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 
+/**
+ * Stores games in the <code>game</code> table, and the moves made in them in <code>game_move</code>.
+ * <p>
+ * A move only inserts a row of a few bytes into <code>game_move</code>. Every {@link #DEFAULT_SNAPSHOT_INTERVAL} moves,
+ * and whenever a game ends, the whole state is written to <code>game.gameState</code> as a snapshot, with the number
+ * of moves it includes in <code>game.snapshotPly</code>. Reading a game replays the moves after its snapshot.
+ * <p>
+ * <code>game.ended</code> repeats whether the game has ended, so games can be listed without reading their states.
+ */
 public class SQLGameDAO implements GameDAO {
 
     private static final Logger logger = Logger.getLogger("SQLGameDAO");
 
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 20;
+
+    /**
+     * Where a game's move log is: the number of moves made, and how many of them its snapshot includes
+     */
+    private record LogPosition(int plies, int snapshotPly) {
+    }
+
     private final DatabaseManager databaseManager;
+    private final int snapshotInterval;
+
+    /**
+     * The log positions of games read or moved in recently, so a move does not have to look its ply up
+     */
+    private final ConcurrentHashMap<Integer, LogPosition> logPositions = new ConcurrentHashMap<>();
 
     public SQLGameDAO(DatabaseManager databaseManager) {
+        this(databaseManager, DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    /**
+     * @param snapshotInterval how many moves to log before writing the whole game again
+     */
+    public SQLGameDAO(DatabaseManager databaseManager, int snapshotInterval) {
         this.databaseManager = databaseManager;
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    /**
+     * @return the bytes stored in the <code>gameState</code> column for a game, see {@link GameCodec}
+     */
+    public static byte[] serializeGame(ChessGame game) {
+        return GameCodec.encode(game);
+    }
+
+    public static ChessGame deserializeGame(byte[] gameState) {
+        return GameCodec.decode(gameState);
+    }
+
+    /**
+     * Converts a <code>gameState</code> column that still holds Gson JSON, from before games were stored with
+     * {@link GameCodec}, to <code>VARBINARY</code>, re-encoding every row. The binary copy is built in a new column
+     * that then replaces the old one, so a migration that stops part way is finished the next time it runs.
+     *
+     * @param conn a connection with the catalog set to the chess database
+     */
+    static void migrateGameState(Connection conn) throws SQLException {
+        var gameStateType = columnType(conn, "gameState");
+        var binaryType = columnType(conn, "gameStateBinary");
+        if (gameStateType != null && !gameStateType.equalsIgnoreCase("varchar")) return;
+
+        if (gameStateType != null) {
+            logger.info("Migrating stored games from JSON to binary");
+            if (binaryType == null) {
+                try (var statement = conn.prepareStatement(
+                        "ALTER TABLE game ADD COLUMN gameStateBinary VARBINARY(255)")) {
+                    statement.executeUpdate();
+                }
+            }
+            try (var select = conn.prepareStatement("SELECT id, gameState FROM game");
+                 var update = conn.prepareStatement("UPDATE game SET gameStateBinary=? WHERE id=?");
+                 var rs = select.executeQuery()) {
+                while (rs.next()) {
+                    var json = rs.getString("gameState");
+                    update.setBytes(1, json == null ? null : serializeGame(deserializeLegacyGame(json)));
+                    update.setInt(2, rs.getInt("id"));
+                    update.addBatch();
+                }
+                update.executeBatch();
+            }
+            try (var statement = conn.prepareStatement("ALTER TABLE game DROP COLUMN gameState")) {
+                statement.executeUpdate();
+            }
+        } else if (binaryType == null) {
+            return;
+        }
+        try (var statement = conn.prepareStatement("ALTER TABLE game RENAME COLUMN gameStateBinary TO gameState")) {
+            statement.executeUpdate();
+        }
     }
 
-    private String serializeGame(ChessGame game) {
-        return new Gson().toJson(game);
+    /**
+     * Adds the <code>snapshotPly</code> column to a game table from before moves were logged. The existing states
+     * include every move made, and no moves have been logged, so they are snapshots at ply 0.
+     */
+    static void migrateSnapshotPly(Connection conn) throws SQLException {
+        if (columnType(conn, "snapshotPly") != null) return;
+        try (var statement = conn.prepareStatement(
+                "ALTER TABLE game ADD COLUMN snapshotPly INT NOT NULL DEFAULT 0")) {
+            statement.executeUpdate();
+        }
     }
 
-    private ChessGame deserializeGame(String gameJson) {
+    /**
+     * Adds the <code>ended</code> column to a game table from before it was kept, filling it in from the stored
+     * states. A game's state is always written when it ends, so the snapshots are enough.
+     */
+    static void migrateEnded(Connection conn) throws SQLException {
+        if (columnType(conn, "ended") != null) return;
+        try (var statement = conn.prepareStatement(
+                "ALTER TABLE game ADD COLUMN ended BOOLEAN NOT NULL DEFAULT FALSE")) {
+            statement.executeUpdate();
+        }
+        try (var select = conn.prepareStatement("SELECT id, gameState FROM game");
+             var update = conn.prepareStatement("UPDATE game SET ended=TRUE WHERE id=?");
+             var rs = select.executeQuery()) {
+            while (rs.next()) {
+                var gameState = rs.getBytes("gameState");
+                if (gameState == null || !deserializeGame(gameState).isEnded()) continue;
+                update.setInt(1, rs.getInt("id"));
+                update.addBatch();
+            }
+            update.executeBatch();
+        }
+    }
+
+    /**
+     * @return the data type of a column of the game table, or null if there is no such column
+     */
+    private static String columnType(Connection conn, String column) throws SQLException {
+        var statement = "SELECT DATA_TYPE FROM INFORMATION_SCHEMA.COLUMNS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'game' AND COLUMN_NAME = ?";
+        try (var preparedStatement = conn.prepareStatement(statement)) {
+            preparedStatement.setString(1, column);
+            try (var rs = preparedStatement.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    /**
+     * Reads the Gson JSON that <code>gameState</code> held before games were stored with {@link GameCodec}
+     */
+    private static ChessGame deserializeLegacyGame(String gameJson) {
         return new Gson().fromJson(gameJson, ChessGame.class);
     }
 
@@ -32,13 +172,11 @@ public class SQLGameDAO implements GameDAO {
     public GameData createGame(String gameName) throws DataAccessException {
         try {
             var statement = "INSERT INTO game (gameName, gameState) VALUES (?, ?)";
-            var conn = databaseManager.getConnection();
-            try (var preparedStatement = conn.prepareStatement(statement, Statement.RETURN_GENERATED_KEYS)) {
+            try (var conn = databaseManager.getConnection();
+                 var preparedStatement = conn.prepareStatement(statement, Statement.RETURN_GENERATED_KEYS)) {
                 preparedStatement.setString(1, gameName);
                 var chessGame = new ChessGame();
-                var jsonString = serializeGame(chessGame);
-                logger.fine("Serialized game: " + jsonString);
-                preparedStatement.setString(2, jsonString);
+                preparedStatement.setBytes(2, serializeGame(chessGame));
                 preparedStatement.executeUpdate();
 
                 var resultSet = preparedStatement.getGeneratedKeys();
@@ -56,81 +194,171 @@ public class SQLGameDAO implements GameDAO {
     @Override
     public GameData readGame(int gameID) throws DataAccessException {
         try {
-            var statement = "SELECT whiteUsername, blackUsername, gameName, gameState FROM game WHERE id = ?";
-            var conn = databaseManager.getConnection();
-            try (var preparedStatement = conn.prepareStatement(statement)) {
+            var statement = "SELECT whiteUsername, blackUsername, gameName, gameState, snapshotPly FROM game " +
+                    "WHERE id = ?";
+            var moveStatement = "SELECT move FROM game_move WHERE gameID = ? AND ply > ? ORDER BY ply";
+            try (var conn = databaseManager.getConnection();
+                 var preparedStatement = conn.prepareStatement(statement);
+                 var movePreparedStatement = conn.prepareStatement(moveStatement)) {
                 preparedStatement.setInt(1, gameID);
                 try (var rs = preparedStatement.executeQuery()) {
-                    if (rs.next()) {
-                        var whiteUsername = rs.getString("whiteUsername");
-                        var blackUsername = rs.getString("blackUsername");
-                        var gameName = rs.getString("gameName");
-                        var gameStateJson = rs.getString("gameState");
-                        var gameState = deserializeGame(gameStateJson);
-                        return new GameData(gameID, whiteUsername, blackUsername, gameName, gameState);
+                    if (!rs.next()) return null;
+                    var whiteUsername = rs.getString("whiteUsername");
+                    var blackUsername = rs.getString("blackUsername");
+                    var gameName = rs.getString("gameName");
+                    var gameState = deserializeGame(rs.getBytes("gameState"));
+                    var snapshotPly = rs.getInt("snapshotPly");
+
+                    movePreparedStatement.setInt(1, gameID);
+                    movePreparedStatement.setInt(2, snapshotPly);
+                    var plies = snapshotPly;
+                    try (var moves = movePreparedStatement.executeQuery()) {
+                        while (moves.next()) {
+                            gameState.makeMove(Move.toChessMove(moves.getInt("move")));
+                            plies++;
+                        }
                     }
-                    return null;
+                    logPositions.put(gameID, new LogPosition(plies, snapshotPly));
+                    return new GameData(gameID, whiteUsername, blackUsername, gameName, gameState);
                 }
             }
         } catch (SQLException e) {
             throw new DataAccessException("Error reading game: " + e.getMessage());
+        } catch (InvalidMoveException e) {
+            throw new DataAccessException("Error replaying moves of game " + gameID + ": " + e.getMessage());
         }
     }
 
     @Override
-    public Collection<GameData> listGames() throws DataAccessException {
-        try {
-            var statement = "SELECT id, whiteUsername, blackUsername, gameName, gameState FROM game";
-            var conn = databaseManager.getConnection();
-            try (var preparedStatement = conn.prepareStatement(statement);
-                 var rs = preparedStatement.executeQuery()) {
-                Collection<GameData> gameDataCollection = new HashSet<>();
+    public List<GameSummary> listGameSummaries(GameFilter filter, String username, int afterID, int limit)
+            throws DataAccessException {
+        var condition = switch (filter) {
+            case ALL -> "";
+            case OPEN -> " AND NOT ended AND (whiteUsername IS NULL OR blackUsername IS NULL)";
+            case MINE -> " AND (whiteUsername = ? OR blackUsername = ?)";
+            case IN_PROGRESS -> " AND NOT ended AND whiteUsername IS NOT NULL AND blackUsername IS NOT NULL";
+        };
+        var statement = "SELECT id, whiteUsername, blackUsername, gameName FROM game WHERE id > ?" + condition +
+                " ORDER BY id LIMIT ?";
+        try (var conn = databaseManager.getConnection();
+             var preparedStatement = conn.prepareStatement(statement)) {
+            var parameter = 1;
+            preparedStatement.setInt(parameter++, afterID);
+            if (filter == GameFilter.MINE) {
+                preparedStatement.setString(parameter++, username);
+                preparedStatement.setString(parameter++, username);
+            }
+            preparedStatement.setInt(parameter, limit);
+            try (var rs = preparedStatement.executeQuery()) {
+                var summaries = new ArrayList<GameSummary>();
                 while (rs.next()) {
-                    var id = rs.getInt("id");
-                    var whiteUsername = rs.getString("whiteUsername");
-                    var blackUsername = rs.getString("blackUsername");
-                    var gameName = rs.getString("gameName");
-                    var gameStateJson = rs.getString("gameState");
-                    var gameData = new GameData(id, whiteUsername, blackUsername, gameName,
-                                                deserializeGame(gameStateJson));
-                    gameDataCollection.add(gameData);
+                    summaries.add(new GameSummary(rs.getInt("id"), rs.getString("whiteUsername"),
+                                                  rs.getString("blackUsername"), rs.getString("gameName")));
                 }
-                return gameDataCollection;
+                return summaries;
             }
         } catch (SQLException e) {
-            throw new DataAccessException("Error reading game lists: " + e.getMessage());
+            throw new DataAccessException("Error listing games: " + e.getMessage());
         }
     }
 
+    /**
+     * Writes the whole game, as a snapshot that includes every move logged so far
+     */
     @Override
     public void updateGame(GameData gameData) throws DataAccessException {
         try {
-            var statement = "UPDATE game SET whiteUsername=?, blackUsername=?, gameName=?, gameState=? WHERE id=?";
-            var conn = databaseManager.getConnection();
-            try (var preparedStatement = conn.prepareStatement(statement)) {
+            var statement = "UPDATE game SET whiteUsername=?, blackUsername=?, gameName=?, gameState=?, ended=?, " +
+                    "snapshotPly=(SELECT COALESCE(MAX(ply), 0) FROM game_move WHERE gameID=?) WHERE id=?";
+            try (var conn = databaseManager.getConnection();
+                 var preparedStatement = conn.prepareStatement(statement)) {
                 preparedStatement.setString(1, gameData.whiteUsername());
                 preparedStatement.setString(2, gameData.blackUsername());
                 preparedStatement.setString(3, gameData.gameName());
-                preparedStatement.setString(4, serializeGame(gameData.game()));
-                preparedStatement.setInt(5, gameData.gameID());
+                preparedStatement.setBytes(4, serializeGame(gameData.game()));
+                preparedStatement.setBoolean(5, gameData.game().isEnded());
+                preparedStatement.setInt(6, gameData.gameID());
+                preparedStatement.setInt(7, gameData.gameID());
                 preparedStatement.executeUpdate();
             }
         } catch (SQLException e) {
             throw new DataAccessException("Error updating game: " + e.getMessage());
+        } finally {
+            logPositions.remove(gameData.gameID());
         }
+    }
 
+    @Override
+    public void appendMove(GameData gameData, ChessMove move) throws DataAccessException {
+        appendMoves(gameData, List.of(move));
+    }
+
+    @Override
+    public void appendMoves(GameData gameData, List<ChessMove> moves) throws DataAccessException {
+        if (moves.isEmpty()) return;
+        var gameID = gameData.gameID();
+        try (var conn = databaseManager.getConnection()) {
+            var position = logPositions.get(gameID);
+            if (position == null) position = readLogPosition(conn, gameID);
+            var plies = position.plies() + moves.size();
+            var snapshot = plies - position.snapshotPly() >= snapshotInterval || gameData.game().isEnded();
+
+            conn.setAutoCommit(false);
+            try (var preparedStatement = conn.prepareStatement(
+                    "INSERT INTO game_move (gameID, ply, move) VALUES (?, ?, ?)")) {
+                var ply = position.plies();
+                for (var move : moves) {
+                    preparedStatement.setInt(1, gameID);
+                    preparedStatement.setInt(2, ++ply);
+                    preparedStatement.setShort(3, (short) Move.fromChessMove(move));
+                    preparedStatement.addBatch();
+                }
+                preparedStatement.executeBatch();
+            }
+            if (snapshot) {
+                try (var preparedStatement = conn.prepareStatement(
+                        "UPDATE game SET gameState=?, snapshotPly=?, ended=? WHERE id=?")) {
+                    preparedStatement.setBytes(1, serializeGame(gameData.game()));
+                    preparedStatement.setInt(2, plies);
+                    preparedStatement.setBoolean(3, gameData.game().isEnded());
+                    preparedStatement.setInt(4, gameID);
+                    preparedStatement.executeUpdate();
+                }
+            }
+            conn.commit();
+            logPositions.put(gameID, new LogPosition(plies, snapshot ? plies : position.snapshotPly()));
+        } catch (SQLException e) {
+            logPositions.remove(gameID);
+            throw new DataAccessException("Error recording moves: " + e.getMessage());
+        }
+    }
+
+    private static LogPosition readLogPosition(Connection conn, int gameID) throws SQLException,
+            DataAccessException {
+        var statement = "SELECT snapshotPly, (SELECT COALESCE(MAX(ply), 0) FROM game_move WHERE gameID = ?) AS plies " +
+                "FROM game WHERE id = ?";
+        try (var preparedStatement = conn.prepareStatement(statement)) {
+            preparedStatement.setInt(1, gameID);
+            preparedStatement.setInt(2, gameID);
+            try (var rs = preparedStatement.executeQuery()) {
+                if (!rs.next()) throw new DataAccessException("Game " + gameID + " does not exist");
+                return new LogPosition(rs.getInt("plies"), rs.getInt("snapshotPly"));
+            }
+        }
     }
 
     @Override
     public void clear() throws DataAccessException {
-        try {
-            var statement = "TRUNCATE TABLE game";
-            var conn = databaseManager.getConnection();
-            try (var preparedStatement = conn.prepareStatement(statement)) {
-                preparedStatement.executeUpdate();
+        try (var conn = databaseManager.getConnection()) {
+            for (var statement : new String[]{"TRUNCATE TABLE game_move", "TRUNCATE TABLE game"}) {
+                try (var preparedStatement = conn.prepareStatement(statement)) {
+                    preparedStatement.executeUpdate();
+                }
             }
         } catch (SQLException e) {
             throw new DataAccessException("Error clearing game table: " + e.getMessage());
+        } finally {
+            logPositions.clear();
         }
     }
 }
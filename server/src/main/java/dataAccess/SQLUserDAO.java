@@ -16,8 +16,8 @@ public class SQLUserDAO implements UserDAO {
     public UserData insertUser(UserData userData) throws DataAccessException {
         try {
             var statement = "INSERT INTO user (username, password, email) VALUES (?, ?, ?)";
-            var conn = databaseManager.getConnection();
-            try (var preparedStatement = conn.prepareStatement(statement)) {
+            try (var conn = databaseManager.getConnection();
+                 var preparedStatement = conn.prepareStatement(statement)) {
                 preparedStatement.setString(1, userData.username());
                 preparedStatement.setString(2, userData.password());
                 preparedStatement.setString(3, userData.email());
@@ -39,8 +39,8 @@ public class SQLUserDAO implements UserDAO {
     public UserData readUser(String username) throws DataAccessException {
         try {
             var statement = "SELECT username, password, email FROM user WHERE username = ?";
-            var conn = databaseManager.getConnection();
-            try (var preparedStatement = conn.prepareStatement(statement)) {
+            try (var conn = databaseManager.getConnection();
+                 var preparedStatement = conn.prepareStatement(statement)) {
                 preparedStatement.setString(1, username);
                 try (var rs = preparedStatement.executeQuery()) {
                     if (rs.next()) {
@@ -61,8 +61,8 @@ public class SQLUserDAO implements UserDAO {
     public void clear() throws DataAccessException {
         try {
             var statement = "TRUNCATE TABLE user";
-            var conn = databaseManager.getConnection();
-            try (var preparedStatement = conn.prepareStatement(statement)) {
+            try (var conn = databaseManager.getConnection();
+                 var preparedStatement = conn.prepareStatement(statement)) {
                 preparedStatement.executeUpdate();
             }
         } catch (SQLException e) {
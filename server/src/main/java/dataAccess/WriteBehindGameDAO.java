@@ -0,0 +1,319 @@
+package dataAccess;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import model.GameData;
+import model.GameFilter;
+import model.GameSummary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the games being read and played in memory in front of another {@link GameDAO}, and writes their moves to it
+ * in the background.
+ * <p>
+ * The copy held here is the authoritative one: reads are answered from it without touching the database, and
+ * {@link #appendMove} only queues the move. A background thread writes each game's queued moves with one
+ * {@link GameDAO#appendMoves} call, once the oldest has waited <code>maxDelayMillis</code> or as soon as
+ * <code>maxDirtyMoves</code> have queued up, whichever comes first. A move that ends the game is written before
+ * {@link #appendMove} returns, and {@link #close()} writes everything still queued. {@link #updateGame} and
+ * {@link #createGame} write through.
+ * <p>
+ * Every game handed out is a copy, so callers can change it freely and store it back.
+ */
+public class WriteBehindGameDAO implements GameDAO, AutoCloseable {
+
+    private static final Logger logger = Logger.getLogger("WriteBehindGameDAO");
+
+    public static final long DEFAULT_MAX_DELAY_MILLIS = 1_000;
+    public static final int DEFAULT_MAX_DIRTY_MOVES = 16;
+    public static final long DEFAULT_IDLE_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    /**
+     * A game held in memory. Its fields are guarded by the entry itself; <code>writeLock</code> is held for the whole
+     * of a write to the delegate, so one game's writes never overlap or reorder.
+     * <p>
+     * An entry is only removed from the map while its lock is held and it has nothing to write, and it is marked
+     * <code>evicted</code> as it goes. Anything that finds it evicted once it holds the lock looks it up again, so a
+     * move is never queued on an entry nothing will write.
+     */
+    private static final class Entry {
+        final ReentrantLock writeLock = new ReentrantLock();
+        GameData gameData;
+        final List<ChessMove> queuedMoves = new ArrayList<>();
+        /**
+         * Set when a full write to the delegate failed and has to be retried
+         */
+        boolean needsUpdate = false;
+        boolean evicted = false;
+        long firstQueuedNanos;
+        long lastUsedNanos = System.nanoTime();
+
+        Entry(GameData gameData) {
+            this.gameData = gameData;
+        }
+
+        synchronized boolean isDirty() {
+            return needsUpdate || !queuedMoves.isEmpty();
+        }
+    }
+
+    private final GameDAO delegate;
+    private final long maxDelayNanos;
+    private final int maxDirtyMoves;
+    private final long idleNanos;
+    private final ConcurrentHashMap<Integer, Entry> entries = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService writer;
+
+    public WriteBehindGameDAO(GameDAO delegate) {
+        this(delegate, DEFAULT_MAX_DELAY_MILLIS, DEFAULT_MAX_DIRTY_MOVES, DEFAULT_IDLE_MILLIS);
+    }
+
+    /**
+     * @param maxDelayMillis the longest a move may wait before it is written
+     * @param maxDirtyMoves  how many moves of a game may wait before they are written
+     * @param idleMillis     how long a game with nothing left to write stays in memory after it was last used
+     */
+    public WriteBehindGameDAO(GameDAO delegate, long maxDelayMillis, int maxDirtyMoves, long idleMillis) {
+        this.delegate = delegate;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.maxDirtyMoves = maxDirtyMoves;
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleMillis);
+        writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "game-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // a move waits at most one period to be noticed and one more before it is old enough to write
+        var period = Math.max(maxDelayMillis / 2, 1);
+        writer.scheduleWithFixedDelay(this::writeDue, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public GameData createGame(String gameName) throws DataAccessException {
+        var gameData = delegate.createGame(gameName);
+        entries.put(gameData.gameID(), new Entry(copy(gameData)));
+        return copy(gameData);
+    }
+
+    @Override
+    public GameData readGame(int gameID) throws DataAccessException {
+        var entry = entries.get(gameID);
+        if (entry == null) {
+            var gameData = delegate.readGame(gameID);
+            if (gameData == null) return null;
+            entry = entries.computeIfAbsent(gameID, id -> new Entry(copy(gameData)));
+        }
+        synchronized (entry) {
+            entry.lastUsedNanos = System.nanoTime();
+            return copy(entry.gameData);
+        }
+    }
+
+    /**
+     * Lists games from the delegate, which is up to date for summaries: names and players only change in
+     * {@link #updateGame}, and games end in a write through
+     */
+    @Override
+    public List<GameSummary> listGameSummaries(GameFilter filter, String username, int afterID, int limit)
+            throws DataAccessException {
+        return delegate.listGameSummaries(filter, username, afterID, limit);
+    }
+
+    /**
+     * Writes the whole game through to the delegate. Moves still queued are dropped, since the game being written
+     * already includes them.
+     */
+    @Override
+    public void updateGame(GameData gameData) throws DataAccessException {
+        while (true) {
+            var entry = entries.computeIfAbsent(gameData.gameID(), id -> new Entry(copy(gameData)));
+            entry.writeLock.lock();
+            try {
+                GameData stored;
+                synchronized (entry) {
+                    if (entry.evicted) continue;
+                    entry.gameData = copy(gameData);
+                    entry.queuedMoves.clear();
+                    entry.needsUpdate = true;
+                    entry.lastUsedNanos = System.nanoTime();
+                    stored = copy(entry.gameData);
+                }
+                delegate.updateGame(stored);
+                synchronized (entry) {
+                    entry.needsUpdate = false;
+                }
+                return;
+            } finally {
+                entry.writeLock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void appendMove(GameData gameData, ChessMove move) throws DataAccessException {
+        appendMoves(gameData, List.of(move));
+    }
+
+    @Override
+    public void appendMoves(GameData gameData, List<ChessMove> moves) throws DataAccessException {
+        Entry entry;
+        int queued;
+        while (true) {
+            entry = entries.computeIfAbsent(gameData.gameID(), id -> new Entry(copy(gameData)));
+            synchronized (entry) {
+                if (entry.evicted) continue;
+                entry.gameData = copy(gameData);
+                if (entry.queuedMoves.isEmpty()) entry.firstQueuedNanos = System.nanoTime();
+                entry.queuedMoves.addAll(moves);
+                entry.lastUsedNanos = System.nanoTime();
+                queued = entry.queuedMoves.size();
+                break;
+            }
+        }
+        if (gameData.game().isEnded()) {
+            write(entry);
+        } else if (queued >= maxDirtyMoves) {
+            var full = entry;
+            try {
+                writer.execute(() -> writeQuietly(full));
+            } catch (RejectedExecutionException e) {
+                // closed, so nothing will write it later
+                write(entry);
+            }
+        }
+    }
+
+    @Override
+    public void clear() throws DataAccessException {
+        entries.clear();
+        delegate.clear();
+    }
+
+    /**
+     * Writes every queued move now
+     *
+     * @throws DataAccessException if a game could not be written; the others are still written
+     */
+    public void flush() throws DataAccessException {
+        DataAccessException failure = null;
+        for (var entry : entries.values()) {
+            try {
+                write(entry);
+            } catch (DataAccessException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) throw failure;
+    }
+
+    /**
+     * Stops the background writer and writes every queued move
+     */
+    @Override
+    public void close() throws DataAccessException {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(5, TimeUnit.SECONDS)) writer.shutdownNow();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    /**
+     * Runs on the background writer: writes the games whose oldest queued move is old enough, and forgets the
+     * games that have been idle for a while
+     */
+    private void writeDue() {
+        var now = System.nanoTime();
+        var dueAge = maxDelayNanos / 2;
+        for (var entry : entries.values()) {
+            boolean due;
+            boolean idle;
+            synchronized (entry) {
+                due = entry.needsUpdate || !entry.queuedMoves.isEmpty() && now - entry.firstQueuedNanos >= dueAge;
+                idle = !entry.isDirty() && now - entry.lastUsedNanos >= idleNanos;
+            }
+            if (due) writeQuietly(entry);
+            if (idle) evict(entry);
+        }
+    }
+
+    /**
+     * Removes a game from memory if it still has nothing to write and has not been used since it was found idle
+     */
+    private void evict(Entry entry) {
+        if (!entry.writeLock.tryLock()) return;
+        try {
+            synchronized (entry) {
+                if (entry.isDirty() || System.nanoTime() - entry.lastUsedNanos < idleNanos) return;
+                if (entries.remove(entry.gameData.gameID(), entry)) entry.evicted = true;
+            }
+        } finally {
+            entry.writeLock.unlock();
+        }
+    }
+
+    private void writeQuietly(Entry entry) {
+        try {
+            write(entry);
+        } catch (DataAccessException e) {
+            logger.log(Level.WARNING, "Could not write game, will retry: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes a game's queued moves, or the whole game if a full write failed before. If the write fails the moves
+     * stay queued, ahead of any queued since.
+     */
+    private void write(Entry entry) throws DataAccessException {
+        entry.writeLock.lock();
+        try {
+            List<ChessMove> moves;
+            GameData gameData;
+            boolean update;
+            synchronized (entry) {
+                if (!entry.isDirty()) return;
+                moves = new ArrayList<>(entry.queuedMoves);
+                gameData = copy(entry.gameData);
+                update = entry.needsUpdate;
+                entry.queuedMoves.clear();
+                entry.needsUpdate = false;
+            }
+            try {
+                if (update) {
+                    delegate.updateGame(gameData);
+                } else {
+                    delegate.appendMoves(gameData, moves);
+                }
+            } catch (DataAccessException | RuntimeException e) {
+                synchronized (entry) {
+                    if (update) {
+                        entry.needsUpdate = true;
+                    } else {
+                        if (entry.queuedMoves.isEmpty()) entry.firstQueuedNanos = System.nanoTime();
+                        entry.queuedMoves.addAll(0, moves);
+                    }
+                }
+                throw e;
+            }
+        } finally {
+            entry.writeLock.unlock();
+        }
+    }
+
+    private static GameData copy(GameData gameData) {
+        return new GameData(gameData.gameID(), gameData.whiteUsername(), gameData.blackUsername(),
+                            gameData.gameName(), new ChessGame(gameData.game()));
+    }
+}
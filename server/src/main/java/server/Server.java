@@ -1,17 +1,28 @@
 package server;
 
+import chess.Tablebase;
 import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
 import dataAccess.*;
 import schema.request.*;
 import schema.response.ErrorResponse;
+import service.AnalysisService;
 import service.AuthService;
 import service.ClearService;
+import exception.BadRequestException;
 import exception.ResponseException;
+import model.GameFilter;
+import model.GameSummary;
 import service.GameService;
 import service.UserService;
 import spark.*;
 import websocket.WebSocketHandler;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.logging.Logger;
 
 public class Server {
@@ -20,22 +31,34 @@ public class Server {
 
     private static final String RESPONSE_TYPE = "application/json";
 
+    /**
+     * Where to find endgame tables, unless the <code>chess.tablebases</code> system property says otherwise; games
+     * are only adjudicated for the tables found there
+     */
+    private static final String TABLEBASE_DIRECTORY = "tablebases";
+
+    private final DatabaseManager databaseManager;
+    private final WriteBehindGameDAO gameDAO;
     private final AuthService authService;
     private final UserService userService;
     private final ClearService clearService;
     private final GameService gameService;
+    private final AnalysisService analysisService;
+    private final Tablebase tablebase;
 
     public Server() {
-        var databaseManager = new DatabaseManager();
+        databaseManager = new DatabaseManager();
 
         var userDOA = new SQLUserDAO(databaseManager);
         var authDOA = new SQLAuthDAO(databaseManager);
-        var gameDOA = new SQLGameDAO(databaseManager);
+        gameDAO = new WriteBehindGameDAO(new SQLGameDAO(databaseManager));
 
         authService = new AuthService(authDOA);
         userService = new UserService(userDOA, authDOA);
-        clearService = new ClearService(userDOA, authDOA, gameDOA);
-        gameService = new GameService(gameDOA, authService);
+        clearService = new ClearService(userDOA, authDOA, gameDAO);
+        gameService = new GameService(gameDAO, authService);
+        tablebase = new Tablebase(Path.of(System.getProperty("chess.tablebases", TABLEBASE_DIRECTORY)));
+        analysisService = new AnalysisService(gameService, tablebase);
     }
 
     public int run(int desiredPort) {
@@ -43,7 +66,7 @@ public class Server {
 
         Spark.staticFiles.location("web");
 
-        Spark.webSocket("/connect", new WebSocketHandler(gameService, userService, authService));
+        Spark.webSocket("/connect", new WebSocketHandler(gameService, userService, authService, tablebase));
 
         // Register your endpoints and handle exceptions here.
         Spark.delete("/db", this::handleClear);
@@ -53,6 +76,7 @@ public class Server {
         Spark.post("/game", this::handleCreateGame);
         Spark.put("/game", this::handleJoinGame);
         Spark.get("/game", this::handleListGame);
+        Spark.get("/game/:id/analysis", this::handleAnalysis);
 
         Spark.exception(ResponseException.class, this::handleException);
 
@@ -120,16 +144,90 @@ public class Server {
         return new Gson().toJson(joinGameResponse);
     }
 
+    /**
+     * Lists games, filtered by the optional <code>filter</code> query parameter. With a <code>limit</code> parameter
+     * this returns one page, continued from <code>after</code>, and the <code>nextAfter</code> to ask for the next
+     * page with; without one it returns every game. Either way the games are written to the response a page at a
+     * time as they are read.
+     * <p>
+     * Once the first page is written the status is already sent, so if reading a later page fails the list ends
+     * early instead, with the <code>nextAfter</code> it stopped at and the error as its <code>message</code>.
+     */
     private Object handleListGame(Request req, Response res) throws ResponseException {
+        ListGamesRequest listGameRequest;
+        try {
+            var filter = req.queryParams("filter");
+            var after = req.queryParams("after");
+            var limit = req.queryParams("limit");
+            listGameRequest = new ListGamesRequest(req.headers("Authorization"),
+                                                   filter == null ? null : GameFilter.valueOf(filter.toUpperCase()),
+                                                   after == null ? 0 : Integer.parseInt(after),
+                                                   limit == null ? 0 : Integer.parseInt(limit));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("filter must be ALL, OPEN, MINE or IN_PROGRESS, and after and limit " +
+                                                  "must be numbers");
+        }
+        // the first page is read before anything is written, so errors like a bad authToken get their status
+        var page = gameService.listGames(listGameRequest);
+
+        res.type(RESPONSE_TYPE);
+        res.status(200);
+        var gson = new Gson();
+        try {
+            // not closed here, so Spark can still finish the response
+            var writer = new JsonWriter(new BufferedWriter(
+                    new OutputStreamWriter(res.raw().getOutputStream(), StandardCharsets.UTF_8)));
+            writer.beginObject().name("games").beginArray();
+            ResponseException failure = null;
+            while (true) {
+                for (var game : page.games()) {
+                    gson.toJson(game, GameSummary.class, writer);
+                }
+                if (listGameRequest.limit() > 0 || page.nextAfter() == null) break;
+                writer.flush();
+                try {
+                    page = gameService.listGames(listGameRequest.after(page.nextAfter()));
+                } catch (ResponseException e) {
+                    logger.warning("Game list ended early after game " + page.nextAfter() + ": " + e.getMessage());
+                    failure = e;
+                    break;
+                }
+            }
+            writer.endArray();
+            if (page.nextAfter() != null) writer.name("nextAfter").value(page.nextAfter());
+            if (failure != null) writer.name("message").value("Error: " + failure.getMessage());
+            writer.endObject();
+            writer.flush();
+        } catch (IOException e) {
+            logger.warning("Could not write game list: " + e.getMessage());
+        }
+        return "";
+    }
+
+    private Object handleAnalysis(Request req, Response res) throws ResponseException {
         res.type(RESPONSE_TYPE);
-        var listGameRequest = new ListGamesRequest(req.headers("Authorization"));
-        var listGameResponse = gameService.listGames(listGameRequest);
+        var millisParam = req.queryParams("millis");
+        AnalysisRequest analysisRequest;
+        try {
+            analysisRequest = new AnalysisRequest(req.headers("Authorization"), Integer.parseInt(req.params(":id")),
+                                                  millisParam == null ? 0 : Long.parseLong(millisParam));
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("game id and millis must be numbers");
+        }
+        var analysisResponse = analysisService.analyze(analysisRequest);
         res.status(200);
-        return new Gson().toJson(listGameResponse);
+        return new Gson().toJson(analysisResponse);
     }
 
     public void stop() {
+        analysisService.shutdown();
         Spark.stop();
         Spark.awaitStop();
+        try {
+            gameDAO.close();
+        } catch (DataAccessException e) {
+            logger.warning("Could not write games before stopping: " + e.getMessage());
+        }
+        databaseManager.close();
     }
 }
@@ -0,0 +1,175 @@
+package service;
+
+import chess.ChessGame;
+import chess.Search;
+import chess.SearchLimits;
+import chess.Tablebase;
+import chess.TranspositionTable;
+import exception.BadRequestException;
+import exception.ResponseException;
+import schema.request.AnalysisRequest;
+import schema.response.AnalysisResponse;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Runs the engine on the current position of a game to suggest a move.
+ * <p>
+ * Searches run on their own small pool of low priority threads with a bounded queue, and when the queue is full a
+ * request is turned away rather than left waiting. The request threads, which also handle moves, do wait for
+ * results, so only as many requests as there are threads and queue slots may wait at once, whether for a new search
+ * or a shared one; any more get a 503. Each search gets a time budget, clamped to {@link #MAX_MILLIS}. A game that
+ * is over is not searched at all.
+ * <p>
+ * Results are cached by Zobrist key, so every observer asking about the same position shares one search, including
+ * one that is still running. A cached result is only reused for a request whose budget is no larger than the one it
+ * was searched with.
+ */
+public class AnalysisService {
+    private static final Logger logger = Logger.getLogger("AnalysisService");
+
+    public static final long DEFAULT_MILLIS = 200;
+    public static final long MAX_MILLIS = 2000;
+
+    private static final int DEFAULT_QUEUE_CAPACITY = 16;
+    private static final int DEFAULT_TABLE_MEGABYTES = 64;
+    private static final int CACHE_CAPACITY = 1024;
+
+    /**
+     * How long past its budget to wait for a search that is running or queued before giving up on it
+     */
+    private static final long WAIT_GRACE_MILLIS = 1000;
+
+    private record CachedAnalysis(long millis, CompletableFuture<AnalysisResponse> result) {
+    }
+
+    private final GameService gameService;
+    private final ThreadPoolExecutor executor;
+    /**
+     * One permit for each request that may wait for a result
+     */
+    private final Semaphore waiters;
+    private final ThreadLocal<Search> searches;
+    private final Map<Long, CachedAnalysis> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, CachedAnalysis> eldest) {
+            return size() > CACHE_CAPACITY;
+        }
+    };
+
+    public AnalysisService(GameService gameService, Tablebase tablebase) {
+        this(gameService, tablebase, Math.max(1, Runtime.getRuntime().availableProcessors() / 2),
+             DEFAULT_QUEUE_CAPACITY, DEFAULT_TABLE_MEGABYTES);
+    }
+
+    /**
+     * @param tablebase      endgame tables for the searches, or null
+     * @param threads        how many searches may run at once
+     * @param queueCapacity  how many searches may wait for a thread before requests are turned away; together with
+     *                       <code>threads</code>, also how many requests may wait for results at once
+     * @param tableMegabytes the size of the transposition table the searches share
+     */
+    public AnalysisService(GameService gameService, Tablebase tablebase, int threads, int queueCapacity,
+                           int tableMegabytes) {
+        this.gameService = gameService;
+        var table = new TranspositionTable(tableMegabytes);
+        searches = ThreadLocal.withInitial(() -> {
+            var search = new Search(table);
+            search.setTablebase(tablebase);
+            return search;
+        });
+
+        waiters = new Semaphore(threads + queueCapacity);
+        var threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                                          new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            var thread = new Thread(runnable, "analysis-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    public AnalysisResponse analyze(AnalysisRequest request) throws ResponseException {
+        if (request.gameID() == 0) {
+            throw new BadRequestException();
+        }
+        if (request.millis() < 0) {
+            throw new BadRequestException("millis must not be negative");
+        }
+
+        var gameData = gameService.readGame(request.gameID(), request.authToken());
+        if (gameData == null) {
+            throw new BadRequestException("Game with id " + request.gameID() + " does not exist");
+        }
+
+        if (gameData.game().isEnded()) {
+            return new AnalysisResponse(gameData.game().getTeamTurn(), null, 0, 0, 0, 0, 0);
+        }
+
+        var millis = request.millis() == 0 ? DEFAULT_MILLIS : Math.min(request.millis(), MAX_MILLIS);
+        // the stored game may be changed by a move while the search runs, so search a copy
+        var position = new ChessGame(gameData.game());
+        if (!waiters.tryAcquire()) {
+            throw new ResponseException(503, "Analysis is busy, try again later");
+        }
+        try {
+            return submit(position, millis).get(millis + WAIT_GRACE_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ResponseException(503, "Analysis is busy, try again later");
+        } catch (ExecutionException e) {
+            throw new ResponseException(500, "Internal error: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseException(500, "Internal error: interrupted");
+        } finally {
+            waiters.release();
+        }
+    }
+
+    /**
+     * Stops taking analysis requests and abandons any that are queued
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private CompletableFuture<AnalysisResponse> submit(ChessGame position, long millis) throws ResponseException {
+        var key = position.getZobristKey();
+        synchronized (cache) {
+            var cached = cache.get(key);
+            if (cached != null && cached.millis() >= millis) {
+                return cached.result();
+            }
+
+            var result = new CompletableFuture<AnalysisResponse>();
+            try {
+                executor.execute(() -> run(key, position, millis, result));
+            } catch (RejectedExecutionException e) {
+                throw new ResponseException(503, "Analysis is busy, try again later");
+            }
+            cache.put(key, new CachedAnalysis(millis, result));
+            return result;
+        }
+    }
+
+    private void run(long key, ChessGame position, long millis, CompletableFuture<AnalysisResponse> result) {
+        try {
+            var searchResult = searches.get().search(position, SearchLimits.time(millis));
+            result.complete(new AnalysisResponse(position.getTeamTurn(), searchResult.bestMove(),
+                                                 searchResult.score(), searchResult.mateIn(), searchResult.depth(),
+                                                 searchResult.nodes(), searchResult.millis()));
+        } catch (RuntimeException e) {
+            logger.warning("Analysis failed: " + e.getMessage());
+            synchronized (cache) {
+                var cached = cache.get(key);
+                if (cached != null && cached.result() == result) cache.remove(key);
+            }
+            result.completeExceptionally(e);
+        }
+    }
+}
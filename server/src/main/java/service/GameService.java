@@ -1,11 +1,14 @@
 package service;
 
+import chess.ChessMove;
 import dataAccess.DataAccessException;
 import dataAccess.GameDAO;
 import exception.AlreadyTakenException;
 import exception.BadRequestException;
 import exception.ResponseException;
 import model.GameData;
+import model.GameFilter;
+import model.GameSummary;
 import schema.request.CreateGameRequest;
 import schema.request.JoinGameRequest;
 import schema.request.ListGamesRequest;
@@ -13,9 +16,12 @@ import schema.response.CreateGameResponse;
 import schema.response.JoinGameResponse;
 import schema.response.ListGamesResponse;
 
-import java.util.Collection;
-
 public class GameService {
+    /**
+     * The most games {@link #listGames} returns at once
+     */
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final GameDAO gameDAO;
     private final AuthService authService;
 
@@ -80,12 +86,24 @@ public class GameService {
         }
     }
 
+    /**
+     * Lists one page of games, without their boards. A request with no limit gets the largest page.
+     */
     public ListGamesResponse listGames(ListGamesRequest request) throws ResponseException {
-        authService.authenticate(request.authToken());
+        var authData = authService.authenticate(request.authToken());
+
+        if (request.limit() < 0 || request.afterID() < 0) {
+            throw new BadRequestException("limit and afterID cannot be negative");
+        }
+        var limit = request.limit() == 0 ? MAX_PAGE_SIZE : Math.min(request.limit(), MAX_PAGE_SIZE);
+        var filter = request.filter() == null ? GameFilter.ALL : request.filter();
 
         try {
-            Collection<GameData> gameDataCollection = gameDAO.listGames();
-            return new ListGamesResponse(gameDataCollection.toArray(new GameData[0]));
+            // one more than asked for, to know whether there is another page
+            var games = gameDAO.listGameSummaries(filter, authData.username(), request.afterID(), limit + 1);
+            if (games.size() <= limit) return new ListGamesResponse(games.toArray(new GameSummary[0]), null);
+            var page = games.subList(0, limit).toArray(new GameSummary[0]);
+            return new ListGamesResponse(page, page[page.length - 1].gameID());
         } catch (DataAccessException e) {
             throw new ResponseException(500, "Error reading games: " + e.getMessage());
         }
@@ -110,4 +128,19 @@ public class GameService {
             throw new ResponseException(500, "Internal error: " + e.getMessage());
         }
     }
+
+    /**
+     * Stores a move made in a game, which costs much less than {@link #updateGame} for a stored game
+     *
+     * @param gameData the game after the move was made
+     */
+    public void recordMove(GameData gameData, ChessMove move, String authToken) throws ResponseException {
+        authService.authenticate(authToken);
+
+        try {
+            gameDAO.appendMove(gameData, move);
+        } catch (DataAccessException e) {
+            throw new ResponseException(500, "Internal error: " + e.getMessage());
+        }
+    }
 }
@@ -3,6 +3,7 @@ package websocket;
 import chess.ChessGame;
 import chess.ChessMove;
 import chess.InvalidMoveException;
+import chess.Tablebase;
 import exception.AlreadyTakenException;
 import exception.BadRequestException;
 import exception.ResponseException;
@@ -22,14 +23,23 @@ public class GameSession {
     private final GameService gameService;
     private final UserService userService;
     private final int gameID;
+    private final Tablebase tablebase;
     private Connection whitePlayerConnection;
     private Connection blackPlayerConnection;
     private final ConcurrentHashMap<String, Connection> observers = new ConcurrentHashMap<>();
 
     public GameSession(int gameID, GameService gameService, UserService userService) {
+        this(gameID, gameService, userService, null);
+    }
+
+    /**
+     * @param tablebase endgame tables to end games that can only be drawn, or null to play every game out
+     */
+    public GameSession(int gameID, GameService gameService, UserService userService, Tablebase tablebase) {
         this.gameID = gameID;
         this.gameService = gameService;
         this.userService = userService;
+        this.tablebase = tablebase;
     }
 
     public void broadcast(String excludeAuthToken, String message) throws IOException {
@@ -58,7 +68,7 @@ public class GameSession {
         return gameService.readGame(gameID, authToken);
     }
 
-    public void endGame(String authToken) throws ResponseException {
+    public synchronized void endGame(String authToken) throws ResponseException {
         cleanUpConnections();
         if ((whitePlayerConnection == null || !authToken.equals(whitePlayerConnection.authToken())) &&
                 (blackPlayerConnection == null || !authToken.equals(blackPlayerConnection.authToken()))) {
@@ -142,7 +152,7 @@ public class GameSession {
         }
     }
 
-    public Notification makeMove(String authToken, ChessMove move) throws ResponseException {
+    public synchronized Notification makeMove(String authToken, ChessMove move) throws ResponseException {
         ChessGame.TeamColor team = null;
         if (whitePlayerConnection != null && authToken.equals(whitePlayerConnection.authToken())) {
             team = ChessGame.TeamColor.WHITE;
@@ -169,25 +179,34 @@ public class GameSession {
             throw new BadRequestException("That is not a valid move.");
         }
 
+        // the status is computed once for the team now to move and cached on the game
+        var status = game.getStatus();
+        var toMoveUsername = status.teamToMove() == ChessGame.TeamColor.WHITE ?
+                gameData.whiteUsername() : gameData.blackUsername();
+        var opponentUsername = status.teamToMove() == ChessGame.TeamColor.WHITE ?
+                gameData.blackUsername() : gameData.whiteUsername();
+
         Notification notification = null;
-        if (game.isInStalemate(ChessGame.TeamColor.WHITE) || game.isInStalemate(ChessGame.TeamColor.BLACK)) {
+        if (status.isStalemate()) {
             game.endGame();
             notification = new Notification("Game over: Stalemate");
-        } else if (game.isInCheckmate(ChessGame.TeamColor.WHITE)) {
+        } else if (status.isCheckmate()) {
             game.endGame();
-            notification = new Notification(
-                    gameData.whiteUsername() + " is in checkmate! " + gameData.blackUsername() + " won!");
-        } else if (game.isInCheckmate(ChessGame.TeamColor.BLACK)) {
+            notification = new Notification(toMoveUsername + " is in checkmate! " + opponentUsername + " won!");
+        } else if (isTablebaseDraw(game)) {
             game.endGame();
-            notification = new Notification(
-                    gameData.blackUsername() + " is in checkmate! " + gameData.whiteUsername() + " won!");
-        } else if (game.isInCheck(ChessGame.TeamColor.WHITE)) {
-            notification = new Notification(gameData.whiteUsername() + " is in check!");
-        } else if (game.isInCheck(ChessGame.TeamColor.BLACK)) {
-            notification = new Notification(gameData.blackUsername() + " is in check!");
+            notification = new Notification("Game over: Draw, neither player can force a win");
+        } else if (status.inCheck()) {
+            notification = new Notification(toMoveUsername + " is in check!");
         }
 
-        gameService.updateGame(gameData, authToken);
+        gameService.recordMove(gameData, move, authToken);
         return notification;
     }
+
+    private boolean isTablebaseDraw(ChessGame game) {
+        if (tablebase == null) return false;
+        var result = tablebase.probe(game);
+        return result != null && result.isDraw();
+    }
 }
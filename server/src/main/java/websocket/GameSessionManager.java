@@ -1,5 +1,6 @@
 package websocket;
 
+import chess.Tablebase;
 import dataAccess.GameDAO;
 import exception.BadRequestException;
 import exception.ResponseException;
@@ -12,10 +13,12 @@ public class GameSessionManager {
     private final ConcurrentHashMap<Integer, GameSession> gameSessions = new ConcurrentHashMap<>();
     private final GameService gameService;
     private final UserService userService;
+    private final Tablebase tablebase;
 
-    public GameSessionManager(GameService gameService, UserService userService) {
+    public GameSessionManager(GameService gameService, UserService userService, Tablebase tablebase) {
         this.gameService = gameService;
         this.userService = userService;
+        this.tablebase = tablebase;
     }
 
     public GameSession getGameSession(int gameID, String authToken) throws ResponseException {
@@ -25,7 +28,7 @@ public class GameSessionManager {
         if (gameSessions.containsKey(gameID)) {
             return gameSessions.get(gameID);
         }
-        var gameSession = new GameSession(gameID, gameService, userService);
+        var gameSession = new GameSession(gameID, gameService, userService, tablebase);
         gameSessions.put(gameID, gameSession);
         return gameSession;
     }
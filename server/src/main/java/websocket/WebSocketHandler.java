@@ -1,6 +1,7 @@
 package websocket;
 
 import chess.ChessGame;
+import chess.Tablebase;
 import com.google.gson.Gson;
 import exception.ResponseException;
 import org.eclipse.jetty.websocket.api.Session;
@@ -24,9 +25,10 @@ public class WebSocketHandler {
     private final UserService userService;
     private final AuthService authService;
 
-    public WebSocketHandler(GameService gameService, UserService userService, AuthService authService) {
+    public WebSocketHandler(GameService gameService, UserService userService, AuthService authService,
+                            Tablebase tablebase) {
         this.authService = authService;
-        gameSessionManager = new GameSessionManager(gameService, userService);
+        gameSessionManager = new GameSessionManager(gameService, userService, tablebase);
         this.userService = userService;
     }
 
@@ -0,0 +1,201 @@
+package dataAccessTests;
+
+import dataAccess.ConnectionPool;
+import dataAccess.DataAccessException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class ConnectionPoolTests {
+
+    /**
+     * Stands in for a database connection, recording what was done to it
+     */
+    private static class FakeConnection {
+        boolean closed = false;
+        boolean valid = true;
+        boolean autoCommit = true;
+        int rollbacks = 0;
+
+        Connection proxy() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                                                       new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "close" -> closed = true;
+                            case "isClosed" -> {
+                                return closed;
+                            }
+                            case "isValid" -> {
+                                return valid && !closed;
+                            }
+                            case "getAutoCommit" -> {
+                                return autoCommit;
+                            }
+                            case "setAutoCommit" -> autoCommit = (boolean) args[0];
+                            case "rollback" -> rollbacks++;
+                            case "getCatalog" -> {
+                                return "chess";
+                            }
+                        }
+                        return null;
+                    });
+        }
+    }
+
+    private final List<FakeConnection> opened = new ArrayList<>();
+    private ConnectionPool pool;
+
+    private ConnectionPool pool(int minSize, int maxSize, long timeoutMillis, long leakMillis) {
+        pool = new ConnectionPool(() -> {
+            var connection = new FakeConnection();
+            synchronized (opened) {
+                opened.add(connection);
+            }
+            return connection.proxy();
+        }, new ConnectionPool.Settings(minSize, maxSize, timeoutMillis, 0, 1, 60_000, leakMillis));
+        return pool;
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    public void reusesClosedConnections() throws DataAccessException, SQLException {
+        pool(0, 2, 1_000, 0);
+        try (var conn = pool.getConnection()) {
+            Assertions.assertEquals("chess", conn.getCatalog());
+        }
+        try (var conn = pool.getConnection()) {
+            Assertions.assertFalse(conn.isClosed());
+        }
+        Assertions.assertEquals(1, opened.size());
+        Assertions.assertFalse(opened.get(0).closed);
+
+        var metrics = pool.getMetrics();
+        Assertions.assertEquals(0, metrics.active());
+        Assertions.assertEquals(1, metrics.idle());
+        Assertions.assertEquals(2, metrics.borrows());
+    }
+
+    @Test
+    public void cannotUseReturnedConnection() throws DataAccessException, SQLException {
+        pool(0, 1, 1_000, 0);
+        var conn = pool.getConnection();
+        conn.close();
+        Assertions.assertTrue(conn.isClosed());
+        Assertions.assertThrows(SQLException.class, conn::getCatalog);
+        // closing twice must not give the connection back twice
+        conn.close();
+        Assertions.assertEquals(1, pool.getMetrics().idle());
+    }
+
+    @Test
+    public void lendsSeveralAtOnce() throws DataAccessException, SQLException {
+        pool(0, 3, 1_000, 0);
+        try (var first = pool.getConnection(); var second = pool.getConnection(); var third = pool.getConnection()) {
+            Assertions.assertEquals(3, pool.getMetrics().active());
+            Assertions.assertNotEquals(first, second);
+            Assertions.assertNotEquals(second, third);
+        }
+        Assertions.assertEquals(3, pool.getMetrics().idle());
+    }
+
+    @Test
+    public void waitsForFreeConnection() throws Exception {
+        pool(0, 1, 5_000, 0);
+        var held = pool.getConnection();
+        var borrowed = new CountDownLatch(1);
+        var waiter = new Thread(() -> {
+            try (var conn = pool.getConnection()) {
+                borrowed.countDown();
+            } catch (DataAccessException | SQLException e) {
+                Assertions.fail(e);
+            }
+        });
+        waiter.start();
+        Assertions.assertFalse(borrowed.await(100, TimeUnit.MILLISECONDS));
+        Assertions.assertEquals(1, pool.getMetrics().waiting());
+
+        held.close();
+        Assertions.assertTrue(borrowed.await(5, TimeUnit.SECONDS));
+        waiter.join();
+        Assertions.assertEquals(1, opened.size());
+        Assertions.assertTrue(pool.getMetrics().maxWaitNanos() > 0);
+    }
+
+    @Test
+    public void timesOutWhenExhausted() throws DataAccessException, SQLException {
+        pool(0, 1, 50, 0);
+        try (var conn = pool.getConnection()) {
+            Assertions.assertThrows(DataAccessException.class, () -> pool.getConnection());
+        }
+        Assertions.assertEquals(1, pool.getMetrics().timeouts());
+    }
+
+    @Test
+    public void replacesInvalidConnections() throws DataAccessException, SQLException {
+        pool(0, 1, 1_000, 0);
+        pool.getConnection().close();
+        opened.get(0).valid = false;
+
+        try (var conn = pool.getConnection()) {
+            Assertions.assertFalse(conn.isClosed());
+        }
+        Assertions.assertEquals(2, opened.size());
+        Assertions.assertTrue(opened.get(0).closed);
+    }
+
+    @Test
+    public void rollsBackUncommittedWork() throws DataAccessException, SQLException {
+        pool(0, 1, 1_000, 0);
+        try (var conn = pool.getConnection()) {
+            conn.setAutoCommit(false);
+        }
+        Assertions.assertEquals(1, opened.get(0).rollbacks);
+        Assertions.assertTrue(opened.get(0).autoCommit);
+    }
+
+    @Test
+    public void keepsMinimumOpen() throws InterruptedException {
+        pool(2, 4, 1_000, 0);
+        for (int i = 0; i < 50 && pool.getMetrics().idle() < 2; i++) {
+            Thread.sleep(20);
+        }
+        Assertions.assertEquals(2, pool.getMetrics().idle());
+    }
+
+    @Test
+    public void reportsLeaks() throws DataAccessException, InterruptedException, SQLException {
+        pool(0, 1, 1_000, 100);
+        try (var leaked = pool.getConnection()) {
+            for (int i = 0; i < 100 && pool.getMetrics().leaks() == 0; i++) {
+                Thread.sleep(20);
+            }
+            Assertions.assertEquals(1, pool.getMetrics().leaks());
+        }
+    }
+
+    @Test
+    public void closesIdleConnectionsOnClose() throws DataAccessException, SQLException {
+        pool(0, 2, 1_000, 0);
+        var held = pool.getConnection();
+        pool.getConnection().close();
+        pool.close();
+
+        Assertions.assertTrue(opened.get(1).closed);
+        Assertions.assertFalse(opened.get(0).closed);
+        held.close();
+        Assertions.assertTrue(opened.get(0).closed);
+        Assertions.assertThrows(DataAccessException.class, () -> pool.getConnection());
+    }
+}
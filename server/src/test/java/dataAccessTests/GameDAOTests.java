@@ -1,12 +1,16 @@
 package dataAccessTests;
 
+import chess.InvalidMoveException;
+import chess.PgnReader;
 import dataAccess.*;
 import model.GameData;
+import model.GameFilter;
+import model.GameSummary;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
-import java.util.Collection;
+import java.util.List;
 import java.util.stream.Stream;
 
 public class GameDAOTests {
@@ -40,9 +44,8 @@ public class GameDAOTests {
         gameDAO.clear();
         GameData gameData = gameDAO.createGame("new game");
         GameData gameData2 = gameDAO.createGame("another new game");
-        Collection<GameData> gameDataCollection = gameDAO.listGames();
-        Assertions.assertTrue(gameDataCollection.contains(gameData));
-        Assertions.assertTrue(gameDataCollection.contains(gameData2));
+        var summaries = gameDAO.listGameSummaries(GameFilter.ALL, null, 0, 10);
+        Assertions.assertEquals(List.of(GameSummary.of(gameData), GameSummary.of(gameData2)), summaries);
     }
 
     @ParameterizedTest
@@ -54,4 +57,57 @@ public class GameDAOTests {
         gameDAO.clear();
         Assertions.assertNull(gameDAO.readGame(gameData.gameID()));
     }
+
+    @ParameterizedTest
+    @MethodSource("implementations")
+    public void canAppendMoves(GameDAO gameDAO) throws DataAccessException, InvalidMoveException {
+        gameDAO.clear();
+        GameData gameData = gameDAO.createGame("new game");
+        var game = gameData.game();
+        // enough moves to pass a snapshot, with a castle on each side
+        var moves = "e4 e5 Nf3 Nc6 Bb5 a6 Ba4 Nf6 O-O Be7 Re1 b5 Bb3 d6 c3 O-O h3 Nb8 d4 Nbd7 c4 c6 cxb5 axb5 Nc3 Bb7";
+        for (var san : moves.split(" ")) {
+            var move = PgnReader.parseSan(game, san);
+            game.makeMove(move);
+            gameDAO.appendMove(gameData, move);
+        }
+        Assertions.assertEquals(gameData, gameDAO.readGame(gameData.gameID()));
+
+        gameData = gameData.addWhiteUsername("white");
+        gameDAO.updateGame(gameData);
+        var move = PgnReader.parseSan(game, "Nd5");
+        game.makeMove(move);
+        gameDAO.appendMove(gameData, move);
+        Assertions.assertEquals(gameData, gameDAO.readGame(gameData.gameID()));
+    }
+
+    @ParameterizedTest
+    @MethodSource("implementations")
+    public void canListGameSummaries(GameDAO gameDAO) throws DataAccessException {
+        gameDAO.clear();
+        var open = gameDAO.createGame("open").addWhiteUsername("me");
+        gameDAO.updateGame(open);
+        var playing = gameDAO.createGame("playing").addWhiteUsername("white").addBlackUsername("me");
+        gameDAO.updateGame(playing);
+        var ended = gameDAO.createGame("ended").addWhiteUsername("white").addBlackUsername("black");
+        ended.game().endGame();
+        gameDAO.updateGame(ended);
+        var empty = gameDAO.createGame("empty");
+
+        Assertions.assertEquals(List.of(GameSummary.of(open), GameSummary.of(playing), GameSummary.of(ended),
+                                        GameSummary.of(empty)),
+                                gameDAO.listGameSummaries(GameFilter.ALL, "me", 0, 10));
+        Assertions.assertEquals(List.of(GameSummary.of(open), GameSummary.of(empty)),
+                                gameDAO.listGameSummaries(GameFilter.OPEN, "me", 0, 10));
+        Assertions.assertEquals(List.of(GameSummary.of(open), GameSummary.of(playing)),
+                                gameDAO.listGameSummaries(GameFilter.MINE, "me", 0, 10));
+        Assertions.assertEquals(List.of(GameSummary.of(playing)),
+                                gameDAO.listGameSummaries(GameFilter.IN_PROGRESS, "me", 0, 10));
+
+        // keyset pages
+        Assertions.assertEquals(List.of(GameSummary.of(open), GameSummary.of(playing)),
+                                gameDAO.listGameSummaries(GameFilter.ALL, "me", 0, 2));
+        Assertions.assertEquals(List.of(GameSummary.of(ended), GameSummary.of(empty)),
+                                gameDAO.listGameSummaries(GameFilter.ALL, "me", playing.gameID(), 2));
+    }
 }
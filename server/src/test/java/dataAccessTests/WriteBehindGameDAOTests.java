@@ -0,0 +1,185 @@
+package dataAccessTests;
+
+import chess.ChessMove;
+import chess.InvalidMoveException;
+import chess.PgnReader;
+import dataAccess.DataAccessException;
+import dataAccess.MemoryGameDAO;
+import dataAccess.WriteBehindGameDAO;
+import model.GameData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class WriteBehindGameDAOTests {
+
+    /**
+     * Counts what reaches the database
+     */
+    private static class RecordingGameDAO extends MemoryGameDAO {
+        int reads = 0;
+        final List<List<ChessMove>> batches = new ArrayList<>();
+
+        @Override
+        public synchronized GameData readGame(int gameID) {
+            reads++;
+            return super.readGame(gameID);
+        }
+
+        @Override
+        public synchronized void appendMoves(GameData gameData, List<ChessMove> moves) throws DataAccessException {
+            batches.add(List.copyOf(moves));
+            super.appendMoves(gameData, moves);
+        }
+
+        synchronized int movesWritten() {
+            return batches.stream().mapToInt(List::size).sum();
+        }
+    }
+
+    private RecordingGameDAO database;
+    private WriteBehindGameDAO gameDAO;
+
+    private void create(long maxDelayMillis, int maxDirtyMoves) {
+        create(maxDelayMillis, maxDirtyMoves, WriteBehindGameDAO.DEFAULT_IDLE_MILLIS);
+    }
+
+    private void create(long maxDelayMillis, int maxDirtyMoves, long idleMillis) {
+        database = new RecordingGameDAO();
+        gameDAO = new WriteBehindGameDAO(database, maxDelayMillis, maxDirtyMoves, idleMillis);
+    }
+
+    @AfterEach
+    public void tearDown() throws DataAccessException {
+        gameDAO.close();
+    }
+
+    private GameData play(GameData gameData, String... moves) throws DataAccessException, InvalidMoveException {
+        for (var san : moves) {
+            var game = gameData.game();
+            var move = PgnReader.parseSan(game, san);
+            game.makeMove(move);
+            gameDAO.appendMove(gameData, move);
+        }
+        return gameData;
+    }
+
+    private static void awaitMoves(RecordingGameDAO database, int moves) throws InterruptedException {
+        for (int i = 0; i < 250 && database.movesWritten() < moves; i++) {
+            Thread.sleep(20);
+        }
+    }
+
+    @Test
+    public void readsFromMemory() throws DataAccessException, InvalidMoveException {
+        create(60_000, 100);
+        var gameData = gameDAO.createGame("game");
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertEquals(gameData, gameDAO.readGame(gameData.gameID()));
+        }
+        Assertions.assertEquals(0, database.reads);
+
+        // changing a game read from the cache does not change the cached one until it is stored
+        var copy = gameDAO.readGame(gameData.gameID());
+        copy.game().makeMove(PgnReader.parseSan(copy.game(), "e4"));
+        Assertions.assertEquals(gameData, gameDAO.readGame(gameData.gameID()));
+    }
+
+    @Test
+    public void writesMovesInBatches() throws DataAccessException, InvalidMoveException {
+        create(60_000, 100);
+        var gameData = play(gameDAO.createGame("game"), "e4", "e5", "Nf3");
+        Assertions.assertEquals(gameData, gameDAO.readGame(gameData.gameID()));
+        Assertions.assertTrue(database.batches.isEmpty());
+
+        gameDAO.flush();
+        Assertions.assertEquals(1, database.batches.size());
+        Assertions.assertEquals(3, database.batches.get(0).size());
+        Assertions.assertEquals(gameData, database.readGame(gameData.gameID()));
+    }
+
+    @Test
+    public void writesAfterMaxDirtyMoves() throws DataAccessException, InvalidMoveException, InterruptedException {
+        create(60_000, 4);
+        var gameData = play(gameDAO.createGame("game"), "e4", "e5", "Nf3", "Nc6");
+        awaitMoves(database, 4);
+        Assertions.assertEquals(4, database.movesWritten());
+        Assertions.assertEquals(gameData, database.readGame(gameData.gameID()));
+    }
+
+    @Test
+    public void writesAfterMaxDelay() throws DataAccessException, InvalidMoveException, InterruptedException {
+        create(100, 100);
+        var gameData = play(gameDAO.createGame("game"), "d4");
+        awaitMoves(database, 1);
+        Assertions.assertEquals(1, database.movesWritten());
+        Assertions.assertEquals(gameData, database.readGame(gameData.gameID()));
+    }
+
+    @Test
+    public void writesEndedGameAtOnce() throws DataAccessException, InvalidMoveException {
+        create(60_000, 100);
+        var gameData = play(gameDAO.createGame("game"), "f3", "e5", "g4");
+        var game = gameData.game();
+        var mate = PgnReader.parseSan(game, "Qh4#");
+        game.makeMove(mate);
+        game.endGame();
+        gameDAO.appendMove(gameData, mate);
+
+        Assertions.assertEquals(4, database.movesWritten());
+        Assertions.assertTrue(database.readGame(gameData.gameID()).game().isEnded());
+    }
+
+    @Test
+    public void writesThroughUpdates() throws DataAccessException, InvalidMoveException {
+        create(60_000, 100);
+        var gameData = play(gameDAO.createGame("game"), "e4");
+        gameData = gameData.addWhiteUsername("white");
+        gameDAO.updateGame(gameData);
+        Assertions.assertEquals(gameData, database.readGame(gameData.gameID()));
+
+        // the update already stored the queued move
+        gameDAO.flush();
+        Assertions.assertTrue(database.batches.isEmpty());
+    }
+
+    @Test
+    public void writesEverythingOnClose() throws DataAccessException, InvalidMoveException {
+        create(60_000, 100);
+        var first = play(gameDAO.createGame("first"), "e4");
+        var second = play(gameDAO.createGame("second"), "d4", "d5");
+        gameDAO.close();
+        Assertions.assertEquals(first, database.readGame(first.gameID()));
+        Assertions.assertEquals(second, database.readGame(second.gameID()));
+    }
+
+    @Test
+    public void keepsMovesMadeWhileEvicting() throws DataAccessException, InvalidMoveException,
+            InterruptedException {
+        // games are written and evicted within a millisecond or two, so eviction keeps racing the next move
+        create(2, 100, 1);
+        var gameData = gameDAO.createGame("game");
+        var shuffle = new String[]{"Nf3", "Nf6", "Ng1", "Ng8"};
+        var played = 0;
+        for (int i = 0; i < 250; i++) {
+            for (var san : shuffle) {
+                play(gameData, san);
+                played++;
+            }
+            Thread.sleep(i % 3);
+            if (i % 10 == 9) {
+                // long enough to be evicted, so this read goes to the database
+                Thread.sleep(20);
+                Assertions.assertEquals(gameData, gameDAO.readGame(gameData.gameID()));
+            }
+        }
+        gameDAO.flush();
+
+        Assertions.assertTrue(database.reads > 0, "the game was never evicted");
+        Assertions.assertEquals(played, database.movesWritten());
+        Assertions.assertEquals(gameData, gameDAO.readGame(gameData.gameID()));
+    }
+}
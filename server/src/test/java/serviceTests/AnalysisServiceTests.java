@@ -0,0 +1,134 @@
+package serviceTests;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.Fen;
+import dataAccess.*;
+import exception.BadRequestException;
+import exception.NotAuthorizedException;
+import exception.ResponseException;
+import model.AuthData;
+import model.GameData;
+import model.UserData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import schema.request.AnalysisRequest;
+import service.AnalysisService;
+import service.AuthService;
+import service.GameService;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class AnalysisServiceTests {
+
+    private AnalysisService analysisService;
+    private GameService gameService;
+    private GameDAO gameDAO;
+    private AuthData auth;
+
+    @BeforeEach
+    public void setup() throws DataAccessException {
+        gameDAO = new MemoryGameDAO();
+        var authDAO = new MemoryAuthDAO();
+        gameService = new GameService(gameDAO, new AuthService(authDAO));
+        analysisService = new AnalysisService(gameService, null, 1, 4, 1);
+        auth = authDAO.createAuth(new UserData("name", "pass", "email"));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        analysisService.shutdown();
+    }
+
+    @Test
+    public void canAnalyzeGame() throws ResponseException, DataAccessException {
+        var game = gameDAO.createGame("game");
+        var response = analysisService.analyze(new AnalysisRequest(auth.authToken(), game.gameID(), 50));
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, response.teamToMove());
+        Assertions.assertNotNull(response.bestMove());
+        Assertions.assertTrue(response.depth() > 0);
+        Assertions.assertTrue(response.millis() <= AnalysisService.MAX_MILLIS);
+    }
+
+    @Test
+    public void findsMate() throws ResponseException, DataAccessException {
+        var game = gameDAO.createGame("game");
+        var position = Fen.parse("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        gameDAO.updateGame(new GameData(game.gameID(), null, null, "game", position));
+
+        var response = analysisService.analyze(new AnalysisRequest(auth.authToken(), game.gameID(), 200));
+        Assertions.assertEquals(new ChessMove(new ChessPosition(1, 1), new ChessPosition(8, 1), null),
+                                response.bestMove());
+        Assertions.assertEquals(1, response.mateIn());
+    }
+
+    @Test
+    public void sharesResultForSamePosition() throws ResponseException, DataAccessException {
+        var first = gameDAO.createGame("first");
+        var second = gameDAO.createGame("second");
+        var firstResponse = analysisService.analyze(new AnalysisRequest(auth.authToken(), first.gameID(), 50));
+        var secondResponse = analysisService.analyze(new AnalysisRequest(auth.authToken(), second.gameID(), 50));
+        Assertions.assertSame(firstResponse, secondResponse);
+
+        var longer = analysisService.analyze(new AnalysisRequest(auth.authToken(), second.gameID(), 100));
+        Assertions.assertNotSame(firstResponse, longer);
+    }
+
+    @Test
+    public void doesNotSearchEndedGame() throws ResponseException, DataAccessException {
+        var game = gameDAO.createGame("game");
+        game.game().endGame();
+        gameDAO.updateGame(game);
+
+        var response = analysisService.analyze(new AnalysisRequest(auth.authToken(), game.gameID(), 50));
+        Assertions.assertNull(response.bestMove());
+        Assertions.assertEquals(0, response.nodes());
+    }
+
+    @Test
+    public void limitsWaitingRequests() throws DataAccessException, InterruptedException {
+        // one thread and one queue slot, so two requests may wait
+        analysisService.shutdown();
+        analysisService = new AnalysisService(gameService, null, 1, 1, 1);
+        var game = gameDAO.createGame("game");
+        var request = new AnalysisRequest(auth.authToken(), game.gameID(), 500);
+        var waiting = new ArrayList<Thread>();
+        var failure = new AtomicReference<ResponseException>();
+        for (int i = 0; i < 2; i++) {
+            var thread = new Thread(() -> {
+                try {
+                    analysisService.analyze(request);
+                } catch (ResponseException e) {
+                    failure.set(e);
+                }
+            });
+            thread.start();
+            waiting.add(thread);
+        }
+        Thread.sleep(100);
+
+        var busy = Assertions.assertThrows(ResponseException.class, () -> analysisService.analyze(request));
+        Assertions.assertEquals(503, busy.getStatusCode());
+        for (var thread : waiting) {
+            thread.join();
+        }
+        Assertions.assertNull(failure.get());
+    }
+
+    @Test
+    public void cannotAnalyzeBadAuth() throws DataAccessException {
+        var game = gameDAO.createGame("game");
+        Assertions.assertThrows(NotAuthorizedException.class,
+                                () -> analysisService.analyze(new AnalysisRequest("not an auth", game.gameID(), 50)));
+    }
+
+    @Test
+    public void cannotAnalyzeMissingGame() {
+        Assertions.assertThrows(BadRequestException.class,
+                                () -> analysisService.analyze(new AnalysisRequest(auth.authToken(), 1234, 50)));
+    }
+}
@@ -0,0 +1,29 @@
+package analysis;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.PgnReader;
+import model.GameData;
+
+import java.util.List;
+
+/**
+ * One game for a {@link BatchAnalyzer} to go through
+ *
+ * @param id    names the game in the output
+ * @param start the position before the first move
+ * @param moves the moves played from <code>start</code>; every position along the way is analyzed
+ */
+public record AnalysisJob(String id, ChessGame start, List<ChessMove> moves) {
+
+    /**
+     * A stored game only keeps its current position, so that is the one position analyzed
+     */
+    public static AnalysisJob of(GameData gameData) {
+        return new AnalysisJob(Integer.toString(gameData.gameID()), gameData.game(), List.of());
+    }
+
+    public static AnalysisJob of(String id, PgnReader.PgnGame game) {
+        return new AnalysisJob(id, game.start(), game.moves());
+    }
+}
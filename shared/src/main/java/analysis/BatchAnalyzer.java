@@ -0,0 +1,217 @@
+package analysis;
+
+import chess.*;
+import com.google.gson.Gson;
+import model.GameData;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Searches every position of many games and writes one JSON line per position.
+ * <p>
+ * Each game is one task on a {@link ForkJoinPool}, with one {@link Search} per worker thread, so a batch keeps every
+ * core busy. Games are read from their source only as workers become free to take them, with at most a few per
+ * thread waiting, so a batch of any size is never all in memory at once. A game's lines are written together, in
+ * the order its positions were played, but games finish and are written in whatever order they complete.
+ * <p>
+ * A game that fails to analyze is counted and skipped; failing to write the output stops the batch.
+ * {@link #getProgress()} can be read from another thread while a batch runs.
+ */
+public final class BatchAnalyzer implements AutoCloseable {
+
+    /**
+     * Games that may be read ahead of the workers, per worker
+     */
+    private static final int QUEUED_PER_THREAD = 2;
+
+    /**
+     * Reads games one at a time, so a source backed by a file can throw
+     */
+    private interface JobSource {
+        /**
+         * @return the next game, or null when there are no more
+         */
+        AnalysisJob next() throws IOException;
+    }
+
+    private final SearchLimits limits;
+    private final ForkJoinPool pool;
+    private final int maxInFlight;
+    private final ThreadLocal<Search> searches = ThreadLocal.withInitial(Search::new);
+    private final Gson gson = new Gson();
+    private volatile BatchProgress progress = new BatchProgress();
+
+    /**
+     * Analyzes with one thread per available processor
+     */
+    public BatchAnalyzer(SearchLimits limits) {
+        this(limits, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param limits      how long to search each position
+     * @param parallelism how many games to analyze at once
+     */
+    public BatchAnalyzer(SearchLimits limits, int parallelism) {
+        this.limits = limits;
+        pool = new ForkJoinPool(parallelism);
+        maxInFlight = parallelism * (1 + QUEUED_PER_THREAD);
+    }
+
+    /**
+     * Analyzes stored games, which only keep their current position
+     *
+     * @return the batch's final counters
+     * @throws IOException if the output cannot be written
+     */
+    public BatchProgress analyzeGames(Iterator<GameData> games, Writer out) throws IOException,
+            InterruptedException {
+        return run(() -> games.hasNext() ? AnalysisJob.of(games.next()) : null, out);
+    }
+
+    /**
+     * Analyzes every position of every game in a PGN file. Games are named by their number in the file, from 1.
+     *
+     * @return the batch's final counters
+     * @throws IOException if the input cannot be read or parsed, or the output cannot be written
+     */
+    public BatchProgress analyzePgn(PgnReader reader, Writer out) throws IOException, InterruptedException {
+        var count = new int[1];
+        return run(() -> {
+            var game = reader.next();
+            return game == null ? null : AnalysisJob.of(Integer.toString(++count[0]), game);
+        }, out);
+    }
+
+    /**
+     * @return the counters of the batch running now, or of the last one
+     */
+    public BatchProgress getProgress() {
+        return progress;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    private BatchProgress run(JobSource source, Writer out) throws IOException, InterruptedException {
+        var batchProgress = new BatchProgress();
+        progress = batchProgress;
+        var inFlight = new Semaphore(maxInFlight);
+        var writeFailure = new AtomicReference<IOException>();
+
+        try {
+            AnalysisJob job;
+            while (writeFailure.get() == null) {
+                inFlight.acquire();
+                try {
+                    job = source.next();
+                } catch (IOException | RuntimeException e) {
+                    inFlight.release();
+                    throw e;
+                }
+                if (job == null) {
+                    inFlight.release();
+                    break;
+                }
+
+                var next = job;
+                batchProgress.gameStarted();
+                pool.execute(() -> {
+                    try {
+                        var lines = analyze(next, batchProgress);
+                        synchronized (out) {
+                            out.write(lines);
+                        }
+                        batchProgress.gameCompleted();
+                    } catch (IOException e) {
+                        writeFailure.compareAndSet(null, e);
+                        batchProgress.gameFailed();
+                    } catch (RuntimeException | InvalidMoveException e) {
+                        batchProgress.gameFailed();
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        } finally {
+            // wait for the games already handed out, whether or not the batch is stopping
+            inFlight.acquire(maxInFlight);
+            inFlight.release(maxInFlight);
+        }
+
+        if (writeFailure.get() != null) throw writeFailure.get();
+        synchronized (out) {
+            out.flush();
+        }
+        return batchProgress;
+    }
+
+    /**
+     * Runs on a worker thread
+     *
+     * @return the game's JSON lines
+     */
+    private String analyze(AnalysisJob job, BatchProgress batchProgress) throws InvalidMoveException {
+        var search = searches.get();
+        var game = new ChessGame(job.start());
+        var lines = new StringBuilder();
+        for (int ply = 0; ply <= job.moves().size(); ply++) {
+            var played = ply < job.moves().size() ? job.moves().get(ply) : null;
+            var result = search.search(game, limits);
+            var analysis = new PositionAnalysis(job.id(), ply, Fen.format(game), coordinates(played),
+                                                coordinates(result.bestMove()), result.score(), result.mateIn(),
+                                                result.depth(), result.nodes());
+            lines.append(gson.toJson(analysis)).append('\n');
+            batchProgress.positionAnalyzed(result.nodes());
+            if (played != null) game.makeMove(played);
+        }
+        return lines.toString();
+    }
+
+    private static String coordinates(ChessMove move) {
+        return move == null ? null : Move.toString(Move.fromChessMove(move));
+    }
+
+    /**
+     * Analyzes a PGN file, writing JSON lines to standard output and progress to standard error
+     * <p>
+     * Usage: <code>BatchAnalyzer games.pgn [milliseconds per position]</code>
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length == 0) {
+            System.err.println("Usage: BatchAnalyzer games.pgn [milliseconds per position]");
+            System.exit(2);
+        }
+        var millis = args.length > 1 ? Long.parseLong(args[1]) : 100;
+        var out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        try (var analyzer = new BatchAnalyzer(SearchLimits.time(millis));
+             var in = Files.newBufferedReader(Path.of(args[0]), StandardCharsets.UTF_8)) {
+            var reporter = new Thread(() -> {
+                try {
+                    while (true) {
+                        TimeUnit.SECONDS.sleep(10);
+                        System.err.println(analyzer.getProgress());
+                    }
+                } catch (InterruptedException e) {
+                    // the batch is done
+                }
+            });
+            reporter.setDaemon(true);
+            reporter.start();
+
+            var result = analyzer.analyzePgn(new PgnReader(in), out);
+            reporter.interrupt();
+            System.err.println(result);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package analysis;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for a batch analysis, updated by the worker threads as they go and safe to read at any time
+ */
+public final class BatchProgress {
+
+    private final long startNanos = System.nanoTime();
+    private final LongAdder gamesStarted = new LongAdder();
+    private final LongAdder gamesCompleted = new LongAdder();
+    private final LongAdder gamesFailed = new LongAdder();
+    private final LongAdder positions = new LongAdder();
+    private final LongAdder nodes = new LongAdder();
+
+    void gameStarted() {
+        gamesStarted.increment();
+    }
+
+    void gameCompleted() {
+        gamesCompleted.increment();
+    }
+
+    void gameFailed() {
+        gamesFailed.increment();
+    }
+
+    void positionAnalyzed(long searchNodes) {
+        positions.increment();
+        nodes.add(searchNodes);
+    }
+
+    public long getGamesStarted() {
+        return gamesStarted.sum();
+    }
+
+    public long getGamesCompleted() {
+        return gamesCompleted.sum();
+    }
+
+    public long getGamesFailed() {
+        return gamesFailed.sum();
+    }
+
+    public long getPositions() {
+        return positions.sum();
+    }
+
+    public long getNodes() {
+        return nodes.sum();
+    }
+
+    public long getElapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    public double positionsPerSecond() {
+        return perSecond(getPositions());
+    }
+
+    public double nodesPerSecond() {
+        return perSecond(getNodes());
+    }
+
+    private double perSecond(long count) {
+        var millis = getElapsedMillis();
+        return millis == 0 ? 0 : count * 1000.0 / millis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d games (%d failed, %d running), %d positions, %.0f positions/s, %.0f nodes/s",
+                             getGamesCompleted(), getGamesFailed(),
+                             getGamesStarted() - getGamesCompleted() - getGamesFailed(), getPositions(),
+                             positionsPerSecond(), nodesPerSecond());
+    }
+}
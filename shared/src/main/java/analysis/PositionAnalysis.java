@@ -0,0 +1,19 @@
+package analysis;
+
+/**
+ * One line of a {@link BatchAnalyzer}'s output. Moves are in coordinate notation, like <code>e2e4</code> or
+ * <code>e7e8q</code>.
+ *
+ * @param game     the id of the game
+ * @param ply      how many moves into the game the position is
+ * @param fen      the position
+ * @param played   the move played from the position, or null for the last position
+ * @param bestMove the engine's move, or null if the game is over
+ * @param score    centipawns from the point of view of the side to move
+ * @param mateIn   moves until mate, negative if the side to move is getting mated, or 0 if no mate was found
+ * @param depth    how many plies deep the search got
+ * @param nodes    how many positions were searched
+ */
+public record PositionAnalysis(String game, int ply, String fen, String played, String bestMove, int score,
+                               int mateIn, int depth, long nodes) {
+}
@@ -0,0 +1,175 @@
+package chess;
+
+/**
+ * Helpers for the bitboard representation kept alongside the <code>ChessPiece[][]</code> in {@link ChessBoard}.
+ * <p>
+ * Squares are numbered from 0 (a1) to 63 (h8), rank by rank, so bit <code>n</code> of a <code>long</code> is set
+ * when square <code>n</code> is part of the set.
+ */
+public final class Bitboards {
+
+    public static final int NO_SQUARE = 64;
+
+    public static final long EMPTY = 0L;
+    public static final long FILE_A = 0x0101010101010101L;
+    public static final long FILE_H = FILE_A << 7;
+    public static final long RANK_1 = 0xFFL;
+    public static final long RANK_8 = RANK_1 << 56;
+
+    private static final ChessGame.TeamColor[] COLORS = ChessGame.TeamColor.values();
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    public static final int PIECE_TYPE_COUNT = TYPES.length;
+    public static final int PIECE_INDEX_COUNT = COLORS.length * PIECE_TYPE_COUNT;
+
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+    private static final long[] KING_ATTACKS = new long[64];
+    private static final long[] WHITE_PAWN_ATTACKS = new long[64];
+    private static final long[] BLACK_PAWN_ATTACKS = new long[64];
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    static {
+        int[][] knightSteps = {{2, 1}, {1, 2}, {-1, 2}, {-2, 1}, {-2, -1}, {-1, -2}, {1, -2}, {2, -1}};
+        int[][] kingSteps = {{1, 0}, {1, 1}, {0, 1}, {-1, 1}, {-1, 0}, {-1, -1}, {0, -1}, {1, -1}};
+        for (int square = 0; square < 64; square++) {
+            KNIGHT_ATTACKS[square] = steps(square, knightSteps);
+            KING_ATTACKS[square] = steps(square, kingSteps);
+            WHITE_PAWN_ATTACKS[square] = steps(square, new int[][]{{1, -1}, {1, 1}});
+            BLACK_PAWN_ATTACKS[square] = steps(square, new int[][]{{-1, -1}, {-1, 1}});
+        }
+        for (int from = 0; from < 64; from++) {
+            for (var direction : kingSteps) {
+                long ray = 0;
+                long reverse = 0;
+                var row = (from >>> 3) + direction[0];
+                var col = (from & 7) + direction[1];
+                while (row >= 0 && row < 8 && col >= 0 && col < 8) {
+                    var to = row * 8 + col;
+                    BETWEEN[from][to] = ray;
+                    ray |= 1L << to;
+                    row += direction[0];
+                    col += direction[1];
+                }
+                row = (from >>> 3) - direction[0];
+                col = (from & 7) - direction[1];
+                while (row >= 0 && row < 8 && col >= 0 && col < 8) {
+                    reverse |= 1L << (row * 8 + col);
+                    row -= direction[0];
+                    col -= direction[1];
+                }
+                var line = ray | reverse | (1L << from);
+                var targets = ray;
+                while (targets != 0) {
+                    var to = Long.numberOfTrailingZeros(targets);
+                    targets &= targets - 1;
+                    LINE[from][to] = line;
+                }
+            }
+        }
+    }
+
+    private Bitboards() {
+    }
+
+    private static long steps(int square, int[][] steps) {
+        long attacks = 0;
+        for (var step : steps) {
+            var row = (square >>> 3) + step[0];
+            var col = (square & 7) + step[1];
+            if (row >= 0 && row < 8 && col >= 0 && col < 8) attacks |= 1L << (row * 8 + col);
+        }
+        return attacks;
+    }
+
+    public static long knightAttacks(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    public static long kingAttacks(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    /**
+     * @return the squares a pawn of the given color standing on <code>square</code> attacks
+     */
+    public static long pawnAttacks(ChessGame.TeamColor color, int square) {
+        return color == ChessGame.TeamColor.WHITE ? WHITE_PAWN_ATTACKS[square] : BLACK_PAWN_ATTACKS[square];
+    }
+
+    /**
+     * @return the squares strictly between two squares on the same rank, file or diagonal, or an empty set if they
+     * are not aligned
+     */
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    /**
+     * @return every square of the rank, file or diagonal running through both squares, or an empty set if they are
+     * not aligned
+     */
+    public static long line(int from, int to) {
+        return LINE[from][to];
+    }
+
+    /**
+     * @return the square index of a 1-based row and column
+     */
+    public static int square(int row, int col) {
+        return (row - 1) * 8 + (col - 1);
+    }
+
+    public static int square(ChessPosition position) {
+        return square(position.row(), position.col());
+    }
+
+    /**
+     * @return the 1-based row of a square index
+     */
+    public static int row(int square) {
+        return (square >>> 3) + 1;
+    }
+
+    /**
+     * @return the 1-based column of a square index
+     */
+    public static int col(int square) {
+        return (square & 7) + 1;
+    }
+
+    public static ChessPosition position(int square) {
+        return ChessPosition.of(row(square), col(square));
+    }
+
+    public static long bit(int square) {
+        return 1L << square;
+    }
+
+    /**
+     * @return the lowest square in the set, or {@link #NO_SQUARE} if the set is empty
+     */
+    public static int firstSquare(long bitboard) {
+        return Long.numberOfTrailingZeros(bitboard);
+    }
+
+    /**
+     * Index of a piece set in the twelve piece bitboards: white pieces first, in {@link ChessPiece.PieceType}
+     * order, then black pieces.
+     */
+    public static int pieceIndex(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return color.ordinal() * PIECE_TYPE_COUNT + type.ordinal();
+    }
+
+    public static ChessGame.TeamColor pieceIndexColor(int pieceIndex) {
+        return COLORS[pieceIndex / PIECE_TYPE_COUNT];
+    }
+
+    public static ChessPiece.PieceType pieceIndexType(int pieceIndex) {
+        return TYPES[pieceIndex % PIECE_TYPE_COUNT];
+    }
+
+    public static ChessGame.TeamColor opponent(ChessGame.TeamColor color) {
+        return color == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+    }
+}
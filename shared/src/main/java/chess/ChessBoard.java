@@ -13,10 +13,50 @@ public class ChessBoard {
     private final ChessPiece[][] board;
     private ChessPosition kingPositionWhite, kingPositionBlack;
 
+    /**
+     * One set per color and piece type, indexed by {@link Bitboards#pieceIndex}. These mirror <code>board</code>
+     * and are not serialized, so they are built lazily from the array the first time they are needed.
+     */
+    private transient long[] pieceBitboards;
+    private transient long whiteOccupancy, blackOccupancy;
+
+    /**
+     * Zobrist key of the pieces on the board, kept up to date along with the bitboards
+     */
+    private transient long zobristKey;
+
+    /**
+     * Material and piece-square totals for {@link Evaluation}, kept up to date along with the bitboards
+     */
+    private transient int midgameScore, endgameScore, phase;
+
     public ChessBoard() {
         board = new ChessPiece[8][8];
     }
 
+    /**
+     * Creates a copy of another board, including its bitboards and Zobrist key
+     *
+     * @param other the board to copy
+     */
+    public ChessBoard(ChessBoard other) {
+        board = new ChessPiece[8][8];
+        for (int row = 0; row < 8; row++) {
+            System.arraycopy(other.board[row], 0, board[row], 0, 8);
+        }
+        kingPositionWhite = other.kingPositionWhite;
+        kingPositionBlack = other.kingPositionBlack;
+        if (other.pieceBitboards != null) {
+            pieceBitboards = other.pieceBitboards.clone();
+            whiteOccupancy = other.whiteOccupancy;
+            blackOccupancy = other.blackOccupancy;
+            zobristKey = other.zobristKey;
+            midgameScore = other.midgameScore;
+            endgameScore = other.endgameScore;
+            phase = other.phase;
+        }
+    }
+
     /**
      * Adds a chess piece to the chessboard
      *
@@ -24,7 +64,13 @@ public class ChessBoard {
      * @param piece    the piece to add
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
+        var square = Bitboards.square(position);
+        var previous = board[8 - position.row()][position.col() - 1];
         board[8 - position.row()][position.col() - 1] = piece;
+        if (pieceBitboards != null) {
+            if (previous != null) clearBit(previous, square);
+            if (piece != null) setBit(piece, square);
+        }
         if (piece == null) return;
         if (piece.getPieceType() == ChessPiece.PieceType.KING) {
             if (piece.getTeamColor() == ChessGame.TeamColor.WHITE) {
@@ -38,6 +84,7 @@ public class ChessBoard {
     public ChessPiece removePiece(ChessPosition position) {
         var piece = board[8 - position.row()][position.col() - 1];
         board[8 - position.row()][position.col() - 1] = null;
+        if (piece != null && pieceBitboards != null) clearBit(piece, Bitboards.square(position));
         return piece;
     }
 
@@ -52,6 +99,154 @@ public class ChessBoard {
         return board[8 - position.row()][position.col() - 1];
     }
 
+    /**
+     * Gets a chess piece on the chessboard by square index
+     *
+     * @param square the square index, see {@link Bitboards}
+     * @return Either the piece on the square, or null if the square is empty
+     */
+    public ChessPiece getPiece(int square) {
+        return board[7 - (square >>> 3)][square & 7];
+    }
+
+    /**
+     * @return the set of squares holding pieces of the given color and type
+     */
+    public long getPieces(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return bitboards()[Bitboards.pieceIndex(color, type)];
+    }
+
+    /**
+     * @return the set of squares holding pieces of the given color
+     */
+    public long getOccupancy(ChessGame.TeamColor color) {
+        bitboards();
+        return color == ChessGame.TeamColor.WHITE ? whiteOccupancy : blackOccupancy;
+    }
+
+    /**
+     * @return the set of squares holding any piece
+     */
+    public long getOccupancy() {
+        bitboards();
+        return whiteOccupancy | blackOccupancy;
+    }
+
+    /**
+     * @return the square of the king of the given color, or {@link Bitboards#NO_SQUARE} if there is none
+     */
+    public int getKingSquare(ChessGame.TeamColor color) {
+        return Bitboards.firstSquare(getPieces(color, ChessPiece.PieceType.KING));
+    }
+
+    /**
+     * Determines if any piece of the given color attacks a square, working backwards from the square along
+     * pawn, knight, king and slider rays
+     *
+     * @param square the square index, see {@link Bitboards}
+     * @param byColor the color of the attacking pieces
+     * @return true if a piece of <code>byColor</code> attacks the square
+     */
+    public boolean isSquareAttacked(int square, ChessGame.TeamColor byColor) {
+        return getAttackers(square, byColor, getOccupancy()) != 0;
+    }
+
+    /**
+     * Finds the pieces of the given color that attack a square, treating <code>occupancy</code> as the blockers
+     * for sliding pieces
+     *
+     * @return the set of squares holding attackers
+     */
+    public long getAttackers(int square, ChessGame.TeamColor byColor, long occupancy) {
+        var pieces = bitboards();
+        var offset = Bitboards.pieceIndex(byColor, ChessPiece.PieceType.KING);
+        var queens = pieces[offset + ChessPiece.PieceType.QUEEN.ordinal()];
+        var rookLike = pieces[offset + ChessPiece.PieceType.ROOK.ordinal()] | queens;
+        var bishopLike = pieces[offset + ChessPiece.PieceType.BISHOP.ordinal()] | queens;
+        return (Bitboards.pawnAttacks(Bitboards.opponent(byColor), square) &
+                pieces[offset + ChessPiece.PieceType.PAWN.ordinal()])
+                | (Bitboards.knightAttacks(square) & pieces[offset + ChessPiece.PieceType.KNIGHT.ordinal()])
+                | (Bitboards.kingAttacks(square) & pieces[offset])
+                | (SlidingAttacks.rookAttacks(square, occupancy) & rookLike)
+                | (SlidingAttacks.bishopAttacks(square, occupancy) & bishopLike);
+    }
+
+    /**
+     * Gets the Zobrist key of the piece placement. It is updated incrementally as pieces are added and removed,
+     * so reading it is O(1). Side to move, castling and en passant are added by {@link ChessGame#getZobristKey()}.
+     *
+     * @return the Zobrist key of the pieces on the board
+     */
+    public long getZobristKey() {
+        bitboards();
+        return zobristKey;
+    }
+
+    /**
+     * @return the middlegame score from white's point of view, see {@link Evaluation}
+     */
+    int getMidgameScore() {
+        bitboards();
+        return midgameScore;
+    }
+
+    /**
+     * @return the endgame score from white's point of view, see {@link Evaluation}
+     */
+    int getEndgameScore() {
+        bitboards();
+        return endgameScore;
+    }
+
+    /**
+     * @return the game phase, from 0 for bare kings and pawns up to {@link Evaluation#MAX_PHASE}
+     */
+    int getPhase() {
+        bitboards();
+        return phase;
+    }
+
+    private long[] bitboards() {
+        if (pieceBitboards == null) {
+            pieceBitboards = new long[Bitboards.PIECE_INDEX_COUNT];
+            whiteOccupancy = 0;
+            blackOccupancy = 0;
+            zobristKey = 0;
+            midgameScore = 0;
+            endgameScore = 0;
+            phase = 0;
+            for (int square = 0; square < 64; square++) {
+                var piece = getPiece(square);
+                if (piece != null) setBit(piece, square);
+            }
+        }
+        return pieceBitboards;
+    }
+
+    private void setBit(ChessPiece piece, int square) {
+        var bit = Bitboards.bit(square);
+        var pieceIndex = Bitboards.pieceIndex(piece.getTeamColor(), piece.getPieceType());
+        pieceBitboards[pieceIndex] |= bit;
+        zobristKey ^= Zobrist.piece(pieceIndex, square);
+        midgameScore += Evaluation.midgame(pieceIndex, square);
+        endgameScore += Evaluation.endgame(pieceIndex, square);
+        phase += Evaluation.phase(piece.getPieceType());
+        if (piece.getTeamColor() == ChessGame.TeamColor.WHITE) whiteOccupancy |= bit;
+        else blackOccupancy |= bit;
+    }
+
+    private void clearBit(ChessPiece piece, int square) {
+        var bit = ~Bitboards.bit(square);
+        var pieceIndex = Bitboards.pieceIndex(piece.getTeamColor(), piece.getPieceType());
+        pieceBitboards[pieceIndex] &= bit;
+        zobristKey ^= Zobrist.piece(pieceIndex, square);
+        midgameScore -= Evaluation.midgame(pieceIndex, square);
+        endgameScore -= Evaluation.endgame(pieceIndex, square);
+        phase -= Evaluation.phase(piece.getPieceType());
+        if (piece.getTeamColor() == ChessGame.TeamColor.WHITE) whiteOccupancy &= bit;
+        else blackOccupancy &= bit;
+    }
+
     /**
      * Gets the position of the king.
      *
@@ -74,16 +269,22 @@ public class ChessBoard {
             capturedPiece = removePiece(capturedPiecePosition);
         }
         if (move.getPromotionPiece() != null) {
-            addPiece(move.getEndPosition(), new ChessPiece(piece.getTeamColor(), move.getPromotionPiece()));
+            addPiece(move.getEndPosition(), ChessPiece.of(piece.getTeamColor(), move.getPromotionPiece()));
         } else {
             addPiece(move.getEndPosition(), piece);
         }
         return new AppliedChessMove(move, piece, capturedPiece, capturedPiecePosition);
     }
 
+    /**
+     * Reverses {@link #applyMove}, including promotions and en passant captures
+     *
+     * @param move the move returned by <code>applyMove</code>
+     */
     public void unApplyMove(AppliedChessMove move) {
+        removePiece(move.getMove().getEndPosition());
         addPiece(move.getMove().getStartPosition(), move.getPiece());
-        addPiece(move.getCapturedPosition(), move.getCapturedPiece());
+        if (move.getCapturedPiece() != null) addPiece(move.getCapturedPosition(), move.getCapturedPiece());
     }
 
     /**
@@ -91,35 +292,35 @@ public class ChessBoard {
      * (How the game of chess normally starts)
      */
     public void resetBoard() {
-        addPiece(new ChessPosition(1, 1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(1, 2), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(1, 3), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(1, 4), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
-        addPiece(new ChessPosition(1, 5), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
-        addPiece(new ChessPosition(1, 6), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(1, 7), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(1, 8), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(1, 1), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(1, 2), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(1, 3), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(1, 4), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+        addPiece(ChessPosition.of(1, 5), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        addPiece(ChessPosition.of(1, 6), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(1, 7), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(1, 8), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
         for (int i = 1; i <= 8; i++) {
-            addPiece(new ChessPosition(2, i), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+            addPiece(ChessPosition.of(2, i), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
         }
 
         for (int r = 3; r <= 6; r++) {
             for (int c = 1; c <= 8; c++) {
-                addPiece(new ChessPosition(r, c), null);
+                addPiece(ChessPosition.of(r, c), null);
             }
         }
 
         for (int c = 1; c <= 8; c++) {
-            addPiece(new ChessPosition(7, c), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+            addPiece(ChessPosition.of(7, c), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
         }
-        addPiece(new ChessPosition(8, 1), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(8, 2), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(8, 3), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(8, 4), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
-        addPiece(new ChessPosition(8, 5), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
-        addPiece(new ChessPosition(8, 6), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(8, 7), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(8, 8), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(8, 1), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(8, 2), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(8, 3), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(8, 4), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
+        addPiece(ChessPosition.of(8, 5), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        addPiece(ChessPosition.of(8, 6), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(8, 7), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(8, 8), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
     }
 
     /**
@@ -142,7 +343,7 @@ public class ChessBoard {
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(board);
+        return Long.hashCode(getZobristKey());
     }
 
     @Override
@@ -16,7 +16,13 @@ public class ChessGame {
     private ChessMoveHistory moveHistory;
     private boolean ended = false;
 
-    private ChessPieceMoves.EnPassantChessMove enPassantMove = null;
+    private transient LegalMoveCache legalMoveCache;
+
+    /**
+     * Status of the side to move, valid while the position's key still equals <code>statusKey</code>
+     */
+    private transient GameStatus status;
+    private transient long statusKey;
 
     public ChessGame() {
         moveHistory = new ChessMoveHistory();
@@ -24,6 +30,18 @@ public class ChessGame {
         board.resetBoard();
     }
 
+    /**
+     * Creates an independent copy of another game, sharing no mutable state with it
+     *
+     * @param other the game to copy
+     */
+    public ChessGame(ChessGame other) {
+        board = new ChessBoard(other.board);
+        turn = other.turn;
+        moveHistory = new ChessMoveHistory(other.moveHistory);
+        ended = other.ended;
+    }
+
     /**
      * @return Which team's turn it is
      */
@@ -58,62 +76,7 @@ public class ChessGame {
     public Collection<ChessMove> validMoves(ChessPosition startPosition) {
         var piece = board.getPiece(startPosition);
         if (piece == null) return null;
-        var color = piece.getTeamColor();
-
-        var potentialMoves = piece.pieceMoves(board, startPosition);
-
-        var enPassantPosition = moveHistory.getEnPassantPosition();
-        if (enPassantPosition != null && piece.getPieceType() == ChessPiece.PieceType.PAWN) {
-            enPassantMove = ChessPieceMoves.enPassantMove(board, startPosition, color, enPassantPosition);
-            if (enPassantMove != null) potentialMoves.add(enPassantMove);
-        }
-
-        var iterator = potentialMoves.iterator();
-        while (iterator.hasNext()) {
-            var move = iterator.next();
-            var appliedMove = board.applyMove(move);
-            if (isInCheck(piece.getTeamColor())) {
-                iterator.remove();
-            }
-            board.unApplyMove(appliedMove);
-        }
-
-        if (piece.getPieceType() == ChessPiece.PieceType.KING && !isInCheck(color)) {
-            if (moveHistory.canCastleKingSide(color)) {
-                var kingSideCastleMoves = ChessPieceMoves.kingsideCastleMoves(board, startPosition, color);
-                if (isCastleMoveValid(kingSideCastleMoves, color)) {
-                    potentialMoves.add(new ChessMove(startPosition, new ChessPosition(startPosition.row(), 7)));
-                }
-            }
-            if (moveHistory.canCastleQueenSide(color)) {
-                var queenSideCastleMoves = ChessPieceMoves.queensideCastleMoves(board, startPosition, color);
-                if (isCastleMoveValid(queenSideCastleMoves, color)) {
-                    potentialMoves.add(new ChessMove(startPosition, new ChessPosition(startPosition.row(), 3)));
-                }
-            }
-        }
-
-        if (enPassantMove != null && potentialMoves.contains(enPassantMove)) {
-            potentialMoves.remove(enPassantMove);
-            potentialMoves.add(new ChessMove(enPassantMove.getStartPosition(), enPassantMove.getEndPosition()));
-        } else {
-            enPassantMove = null;
-        }
-
-        return potentialMoves;
-    }
-
-    private boolean isCastleMoveValid(Collection<ChessMove> castleMoves, TeamColor color) {
-        if (castleMoves == null || castleMoves.isEmpty()) return false;
-        for (var move : castleMoves) {
-            var appliedMoved = board.applyMove(move);
-            if (isInCheck(color)) {
-                board.unApplyMove(appliedMoved);
-                return false;
-            }
-            board.unApplyMove(appliedMoved);
-        }
-        return true;
+        return legalMoves(piece.getTeamColor()).toChessMoves(Bitboards.square(startPosition));
     }
 
     /**
@@ -131,25 +94,74 @@ public class ChessGame {
 
         if (piece.getTeamColor() != turn) throw new InvalidMoveException("Not this team's turn: " + move);
 
-        var validMoves = validMoves(move.getStartPosition());
-        if (validMoves == null || !validMoves.contains(move)) {
+        var encodedMove = legalMoves(turn).find(move);
+        if (encodedMove == Move.NONE) {
             throw new InvalidMoveException("Not a valid move: " + move);
         }
 
-        var appliedMove = enPassantMove == null ? board.applyMove(move) : board.applyMove(enPassantMove);
-        if (appliedMove.isCastleMove()) {
-            var newRookCol = move.getEndPosition().col() == 7 ? 6 : 4;
+        playMove(encodedMove);
+    }
+
+    /**
+     * Plays a move produced by {@link MoveGenerator} for the side to move without checking it again
+     *
+     * @param move a legal, {@link Move}-encoded move
+     */
+    void playMove(int move) {
+        var start = Bitboards.position(Move.from(move));
+        var end = Bitboards.position(Move.to(move));
+        ChessMove chessMove;
+        if (Move.isEnPassant(move)) {
+            chessMove = new ChessPieceMoves.EnPassantChessMove(start, end, ChessPosition.of(start.row(), end.col()));
+        } else {
+            chessMove = new ChessMove(start, end, Move.promotion(move));
+        }
+
+        var key = getZobristKey();
+        var appliedMove = board.applyMove(chessMove);
+        AppliedChessMove appliedRookMove = null;
+        if (Move.isCastle(move)) {
+            var newRookCol = end.col() == 7 ? 6 : 4;
             var oldRookCol = newRookCol == 6 ? 8 : 1;
-            var rookMove = new ChessMove(new ChessPosition(move.getStartPosition().row(), oldRookCol),
-                                         new ChessPosition(move.getStartPosition().row(), newRookCol));
-            var appliedRookMove = board.applyMove(rookMove);
-            moveHistory.pushMove(appliedRookMove);
+            var rookMove = new ChessMove(ChessPosition.of(start.row(), oldRookCol),
+                                         ChessPosition.of(start.row(), newRookCol));
+            appliedRookMove = board.applyMove(rookMove);
         }
-        moveHistory.pushMove(appliedMove);
+        moveHistory.pushMove(appliedMove, appliedRookMove, key);
+        status = null;
+        if (legalMoveCache != null) legalMoveCache.invalidate();
 
-        if (enPassantMove != null) enPassantMove = null;
+        setTeamTurn(Bitboards.opponent(turn));
+    }
 
-        setTeamTurn(turn == TeamColor.WHITE ? TeamColor.BLACK : TeamColor.WHITE);
+    /**
+     * Takes back the last move made in this game, restoring the board, turn, castling rights, en passant square and
+     * halfmove clock to what they were before it
+     *
+     * @throws InvalidMoveException if the game is over or there is no move to take back
+     */
+    public void unmakeMove() throws InvalidMoveException {
+        if (ended) {
+            throw new InvalidMoveException("Game is over");
+        }
+        if (!undoMove()) throw new InvalidMoveException("No move to take back");
+    }
+
+    /**
+     * Reverses the last {@link #playMove} in O(1) from the saved {@link ChessMoveHistory.Undo}
+     *
+     * @return false if there was no move to take back
+     */
+    boolean undoMove() {
+        var undo = moveHistory.popMove();
+        if (undo == null) return false;
+        if (undo.rookMove() != null) board.unApplyMove(undo.rookMove());
+        board.unApplyMove(undo.move());
+        status = null;
+        if (legalMoveCache != null) legalMoveCache.invalidate();
+
+        setTeamTurn(Bitboards.opponent(turn));
+        return true;
     }
 
     /**
@@ -159,30 +171,9 @@ public class ChessGame {
      * @return True if the specified team is in check
      */
     public boolean isInCheck(TeamColor teamColor) {
-        var kingPosition = board.getKingPosition(teamColor);
-
-        var inCheck = false;
-
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                var position = new ChessPosition(row, col);
-                var piece = board.getPiece(position);
-
-                if (piece == null) continue;
-                if (piece.getTeamColor() == teamColor) continue;
-
-                var attackKingMove = new ChessMove(position, kingPosition);
-                var attackKingPromotionMoves = ChessPieceMoves.getPromotionMoves(attackKingMove);
-                var moves = piece.pieceMoves(board, position);
-
-                if (moves.contains(attackKingMove) || moves.stream().anyMatch(attackKingPromotionMoves::contains)) {
-                    inCheck = true;
-                    break;
-                }
-            }
-        }
-
-        return inCheck;
+        var kingSquare = board.getKingSquare(teamColor);
+        if (kingSquare == Bitboards.NO_SQUARE) return false;
+        return board.isSquareAttacked(kingSquare, Bitboards.opponent(teamColor));
     }
 
     /**
@@ -192,19 +183,9 @@ public class ChessGame {
      * @return True if the specified team is in checkmate
      */
     public boolean isInCheckmate(TeamColor teamColor) {
+        if (teamColor == turn) return getStatus().isCheckmate();
         if (!isInCheck(teamColor)) return false;
-
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                var position = new ChessPosition(row, col);
-                var piece = board.getPiece(position);
-                if (piece == null || piece.getTeamColor() != teamColor) continue;
-
-                var validMoves = validMoves(position);
-                if (validMoves != null && !validMoves.isEmpty()) return false;
-            }
-        }
-        return true;
+        return !hasValidMove(teamColor);
     }
 
     /**
@@ -215,21 +196,39 @@ public class ChessGame {
      * @return True if the specified team is in stalemate, otherwise false
      */
     public boolean isInStalemate(TeamColor teamColor) {
+        if (teamColor == turn) return getStatus().isStalemate();
         if (isInCheck(teamColor)) return false;
+        return !hasValidMove(teamColor);
+    }
 
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                var position = new ChessPosition(row, col);
-                var piece = board.getPiece(position);
-                if (piece == null) continue;
-                if (piece.getTeamColor() != teamColor) continue;
-
-                var moves = validMoves(position);
-                if (!moves.isEmpty()) return false;
-            }
+    /**
+     * Gets check, checkmate and stalemate for the team whose turn it is from a single legal move generation. The
+     * result is kept until the position changes, so asking again before the next move costs nothing.
+     *
+     * @return the status of the team to move
+     */
+    public GameStatus getStatus() {
+        var key = getZobristKey();
+        if (status == null || statusKey != key) {
+            status = new GameStatus(turn, isInCheck(turn), legalMoves(turn).size());
+            statusKey = key;
         }
+        return status;
+    }
 
-        return true;
+    private boolean hasValidMove(TeamColor teamColor) {
+        return !legalMoves(teamColor).isEmpty();
+    }
+
+    /**
+     * Gets the legal moves of a team in the current position. They are generated once per position and team and
+     * then served from a cache until a move is made or the board changes.
+     *
+     * @return the moves, which must not be modified
+     */
+    MoveList legalMoves(TeamColor teamColor) {
+        if (legalMoveCache == null) legalMoveCache = new LegalMoveCache();
+        return legalMoveCache.get(board, moveHistory, teamColor, getZobristKey());
     }
 
     /**
@@ -240,6 +239,8 @@ public class ChessGame {
     public void setBoard(ChessBoard board) {
         this.board = board;
         this.moveHistory = new ChessMoveHistory();
+        status = null;
+        if (legalMoveCache != null) legalMoveCache.invalidate();
     }
 
     /**
@@ -251,6 +252,29 @@ public class ChessGame {
         return board;
     }
 
+    /**
+     * Gets the Zobrist key of the current position: the board's incrementally maintained piece key combined with
+     * the side to move, the castling rights and, when a pawn can actually capture there, the en passant file.
+     *
+     * @return a 64-bit key identifying the position
+     */
+    public long getZobristKey() {
+        var key = board.getZobristKey() ^ Zobrist.sideToMove(turn)
+                ^ Zobrist.castling(moveHistory.getCastlingRights());
+        var enPassantPosition = moveHistory.getEnPassantPosition();
+        if (enPassantPosition != null) {
+            var capturers = Bitboards.pawnAttacks(Bitboards.opponent(turn), Bitboards.square(enPassantPosition));
+            if ((board.getPieces(turn, ChessPiece.PieceType.PAWN) & capturers) != 0) {
+                key ^= Zobrist.enPassant(enPassantPosition.col());
+            }
+        }
+        return key;
+    }
+
+    ChessMoveHistory getMoveHistory() {
+        return moveHistory;
+    }
+
     public void endGame() {
         ended = true;
     }
@@ -266,11 +290,11 @@ public class ChessGame {
         ChessGame chessGame = (ChessGame) o;
         return ended == chessGame.ended && Objects.equals(board,
                                                           chessGame.board) && turn == chessGame.turn && Objects.equals(
-                moveHistory, chessGame.moveHistory) && Objects.equals(enPassantMove, chessGame.enPassantMove);
+                moveHistory, chessGame.moveHistory);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(board, turn, moveHistory, ended, enPassantMove);
+        return Long.hashCode(getZobristKey());
     }
 }
@@ -1,9 +1,15 @@
 package chess;
 
+import java.util.ArrayDeque;
 import java.util.Objects;
 
 public class ChessMoveHistory {
 
+    public static final int WHITE_KING_SIDE = 1;
+    public static final int WHITE_QUEEN_SIDE = 2;
+    public static final int BLACK_KING_SIDE = 4;
+    public static final int BLACK_QUEEN_SIDE = 8;
+
     private ChessPosition enPassantPosition = null;
     private final ChessPieceMoves.EnPassantChessMove enPassantChessMove = null;
     private boolean whiteRookKingSideMoved = false;
@@ -13,9 +19,46 @@ public class ChessMoveHistory {
     private boolean blackRookQueenSideMoved = false;
     private boolean blackKingMoved = false;
 
+    /**
+     * Half moves since the last capture or pawn move, for the fifty-move rule
+     */
+    private int halfmoveClock = 0;
+
+    /**
+     * State from before each move, most recent first. It is not serialized, so a stored game cannot take back the
+     * moves made before it was saved.
+     */
+    private transient ArrayDeque<Undo> undoStack;
+
+    /**
+     * Everything {@link ChessGame} needs to take back one move, as it was before the move was made
+     *
+     * @param move              the move as applied to the board
+     * @param rookMove          the rook's part of a castle, or null
+     * @param movedFlags        which kings and rooks had moved, see {@link #movedFlags()}
+     * @param enPassantPosition the en passant square
+     * @param halfmoveClock     the halfmove clock
+     * @param key               the game's Zobrist key
+     */
+    record Undo(AppliedChessMove move, AppliedChessMove rookMove, int movedFlags, ChessPosition enPassantPosition,
+                int halfmoveClock, long key) {
+    }
+
     public ChessMoveHistory() {
     }
 
+    public ChessMoveHistory(ChessMoveHistory other) {
+        enPassantPosition = other.enPassantPosition;
+        whiteRookKingSideMoved = other.whiteRookKingSideMoved;
+        whiteRookQueenSideMoved = other.whiteRookQueenSideMoved;
+        whiteKingMoved = other.whiteKingMoved;
+        blackRookKingSideMoved = other.blackRookKingSideMoved;
+        blackRookQueenSideMoved = other.blackRookQueenSideMoved;
+        blackKingMoved = other.blackKingMoved;
+        halfmoveClock = other.halfmoveClock;
+        if (other.undoStack != null) undoStack = new ArrayDeque<>(other.undoStack);
+    }
+
     public boolean canCastleKingSide(ChessGame.TeamColor color) {
         return color == ChessGame.TeamColor.WHITE ? !(whiteKingMoved || whiteRookKingSideMoved) :
                 !(blackKingMoved || blackRookKingSideMoved);
@@ -26,6 +69,120 @@ public class ChessMoveHistory {
                 !(blackKingMoved || blackRookQueenSideMoved);
     }
 
+    /**
+     * @return the remaining castling rights as a bit set of {@link #WHITE_KING_SIDE}, {@link #WHITE_QUEEN_SIDE},
+     * {@link #BLACK_KING_SIDE} and {@link #BLACK_QUEEN_SIDE}
+     */
+    public int getCastlingRights() {
+        var rights = 0;
+        if (canCastleKingSide(ChessGame.TeamColor.WHITE)) rights |= WHITE_KING_SIDE;
+        if (canCastleQueenSide(ChessGame.TeamColor.WHITE)) rights |= WHITE_QUEEN_SIDE;
+        if (canCastleKingSide(ChessGame.TeamColor.BLACK)) rights |= BLACK_KING_SIDE;
+        if (canCastleQueenSide(ChessGame.TeamColor.BLACK)) rights |= BLACK_QUEEN_SIDE;
+        return rights;
+    }
+
+    /**
+     * Replaces the castling rights, for setting up a position that did not come from the starting board
+     *
+     * @param rights the rights to keep, as a bit set like {@link #getCastlingRights()}
+     */
+    void setCastlingRights(int rights) {
+        whiteKingMoved = false;
+        blackKingMoved = false;
+        whiteRookKingSideMoved = (rights & WHITE_KING_SIDE) == 0;
+        whiteRookQueenSideMoved = (rights & WHITE_QUEEN_SIDE) == 0;
+        blackRookKingSideMoved = (rights & BLACK_KING_SIDE) == 0;
+        blackRookQueenSideMoved = (rights & BLACK_QUEEN_SIDE) == 0;
+    }
+
+    void setEnPassantPosition(ChessPosition enPassantPosition) {
+        this.enPassantPosition = enPassantPosition;
+    }
+
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    void setHalfmoveClock(int halfmoveClock) {
+        this.halfmoveClock = halfmoveClock;
+    }
+
+    /**
+     * Records a move made in a game, saving the state it replaces so {@link #popMove()} can restore it
+     *
+     * @param move     the move as applied to the board
+     * @param rookMove the rook's part of a castle, or null
+     * @param key      the game's Zobrist key before the move
+     */
+    void pushMove(AppliedChessMove move, AppliedChessMove rookMove, long key) {
+        if (undoStack == null) undoStack = new ArrayDeque<>();
+        undoStack.push(new Undo(move, rookMove, movedFlags(), enPassantPosition, halfmoveClock, key));
+
+        if (rookMove != null) pushMove(rookMove);
+        pushMove(move);
+        var resetsClock = move.getCapturedPiece() != null
+                || move.getPiece().getPieceType() == ChessPiece.PieceType.PAWN;
+        halfmoveClock = resetsClock ? 0 : halfmoveClock + 1;
+    }
+
+    /**
+     * Takes back the last move recorded with {@link #pushMove(AppliedChessMove, AppliedChessMove, long)}, restoring
+     * the castling rights, en passant square and halfmove clock from before it. The board is left to the caller.
+     *
+     * @return what was saved for the move, or null if there is nothing to take back
+     */
+    Undo popMove() {
+        if (undoStack == null || undoStack.isEmpty()) return null;
+        var undo = undoStack.pop();
+        setMovedFlags(undo.movedFlags());
+        enPassantPosition = undo.enPassantPosition();
+        halfmoveClock = undo.halfmoveClock();
+        return undo;
+    }
+
+    /**
+     * Determines if a position already occurred since the last capture or pawn move, looking only at the moves that
+     * can be taken back
+     *
+     * @param key the game's Zobrist key for the position
+     * @return true if the position is a repetition
+     */
+    boolean isRepetition(long key) {
+        if (undoStack == null) return false;
+        var remaining = halfmoveClock;
+        for (var undo : undoStack) {
+            if (remaining-- <= 0) return false;
+            if (undo.key() == key) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return the number of moves that can be taken back
+     */
+    public int undoDepth() {
+        return undoStack == null ? 0 : undoStack.size();
+    }
+
+    /**
+     * Packs the king and rook moved flags into one int. Unlike {@link #getCastlingRights()} this keeps whether it
+     * was the king or a rook that moved, so restoring it gives back an equal history.
+     */
+    int movedFlags() {
+        return (whiteKingMoved ? 1 : 0) | (whiteRookKingSideMoved ? 2 : 0) | (whiteRookQueenSideMoved ? 4 : 0)
+                | (blackKingMoved ? 8 : 0) | (blackRookKingSideMoved ? 16 : 0) | (blackRookQueenSideMoved ? 32 : 0);
+    }
+
+    void setMovedFlags(int flags) {
+        whiteKingMoved = (flags & 1) != 0;
+        whiteRookKingSideMoved = (flags & 2) != 0;
+        whiteRookQueenSideMoved = (flags & 4) != 0;
+        blackKingMoved = (flags & 8) != 0;
+        blackRookKingSideMoved = (flags & 16) != 0;
+        blackRookQueenSideMoved = (flags & 32) != 0;
+    }
+
     public void pushMove(AppliedChessMove move) {
 
         var piece = move.getPiece();
@@ -41,14 +198,14 @@ public class ChessMoveHistory {
 
         if (type == ChessPiece.PieceType.ROOK) {
             if (color == ChessGame.TeamColor.WHITE) {
-                if (startPosition.equals(new ChessPosition(1, 1)))
+                if (startPosition.equals(ChessPosition.of(1, 1)))
                     whiteRookQueenSideMoved = true;
-                if (startPosition.equals(new ChessPosition(1, 8)))
+                if (startPosition.equals(ChessPosition.of(1, 8)))
                     whiteRookKingSideMoved = true;
             } else {
-                if (startPosition.equals(new ChessPosition(8, 1)))
+                if (startPosition.equals(ChessPosition.of(8, 1)))
                     blackRookQueenSideMoved = true;
-                if (startPosition.equals(new ChessPosition(8, 8)))
+                if (startPosition.equals(ChessPosition.of(8, 8)))
                     blackRookKingSideMoved = true;
             }
         }
@@ -69,7 +226,7 @@ public class ChessMoveHistory {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         ChessMoveHistory that = (ChessMoveHistory) o;
-        return whiteRookKingSideMoved == that.whiteRookKingSideMoved && whiteRookQueenSideMoved == that.whiteRookQueenSideMoved && whiteKingMoved == that.whiteKingMoved && blackRookKingSideMoved == that.blackRookKingSideMoved && blackRookQueenSideMoved == that.blackRookQueenSideMoved && blackKingMoved == that.blackKingMoved && Objects.equals(
+        return whiteRookKingSideMoved == that.whiteRookKingSideMoved && whiteRookQueenSideMoved == that.whiteRookQueenSideMoved && whiteKingMoved == that.whiteKingMoved && blackRookKingSideMoved == that.blackRookKingSideMoved && blackRookQueenSideMoved == that.blackRookQueenSideMoved && blackKingMoved == that.blackKingMoved && halfmoveClock == that.halfmoveClock && Objects.equals(
                 enPassantPosition, that.enPassantPosition) && Objects.equals(enPassantChessMove,
                                                                              that.enPassantChessMove);
     }
@@ -77,6 +234,7 @@ public class ChessMoveHistory {
     @Override
     public int hashCode() {
         return Objects.hash(enPassantPosition, enPassantChessMove, whiteRookKingSideMoved, whiteRookQueenSideMoved,
-                            whiteKingMoved, blackRookKingSideMoved, blackRookQueenSideMoved, blackKingMoved);
+                            whiteKingMoved, blackRookKingSideMoved, blackRookQueenSideMoved, blackKingMoved,
+                            halfmoveClock);
     }
 }
@@ -13,7 +13,9 @@ public class ChessPieceMoves {
      */
     public static Collection<ChessMove> diagonalMoves(ChessBoard board, ChessPosition position,
                                                       ChessGame.TeamColor color) {
-        return diagonalMoves(board, position, color, 7);
+        var square = Bitboards.square(position);
+        var attacks = SlidingAttacks.bishopAttacks(square, board.getOccupancy());
+        return movesTo(position, attacks & ~board.getOccupancy(color));
     }
 
     /**
@@ -23,10 +25,11 @@ public class ChessPieceMoves {
      */
     public static Collection<ChessMove> diagonalMoves(ChessBoard board, ChessPosition position,
                                                       ChessGame.TeamColor color, int distance) {
+        if (distance >= 7) return diagonalMoves(board, position, color);
         HashSet<ChessMove> moves = new HashSet<>();
 
         for (int i = 1; i <= distance; i++) {
-            var ne = new ChessPosition(position.row() + i, position.col() + i);
+            var ne = ChessPosition.of(position.row() + i, position.col() + i);
             var move = new ChessMove(position, ne);
             if (!isValid(board, move, color)) break;
             moves.add(move);
@@ -34,7 +37,7 @@ public class ChessPieceMoves {
         }
 
         for (int i = 1; i <= distance; i++) {
-            var se = new ChessPosition(position.row() - i, position.col() + i);
+            var se = ChessPosition.of(position.row() - i, position.col() + i);
             var move = new ChessMove(position, se);
             if (!isValid(board, move, color)) break;
             moves.add(move);
@@ -42,7 +45,7 @@ public class ChessPieceMoves {
         }
 
         for (int i = 1; i <= distance; i++) {
-            var sw = new ChessPosition(position.row() - i, position.col() - i);
+            var sw = ChessPosition.of(position.row() - i, position.col() - i);
             var move = new ChessMove(position, sw);
             if (!isValid(board, move, color)) break;
             moves.add(move);
@@ -50,7 +53,7 @@ public class ChessPieceMoves {
         }
 
         for (int i = 1; i <= distance; i++) {
-            var nw = new ChessPosition(position.row() + i, position.col() - i);
+            var nw = ChessPosition.of(position.row() + i, position.col() - i);
             var move = new ChessMove(position, nw);
             if (!isValid(board, move, color)) break;
             moves.add(move);
@@ -67,7 +70,9 @@ public class ChessPieceMoves {
      */
     public static Collection<ChessMove> straightMoves(ChessBoard board, ChessPosition position,
                                                       ChessGame.TeamColor color) {
-        return straightMoves(board, position, color, 7);
+        var square = Bitboards.square(position);
+        var attacks = SlidingAttacks.rookAttacks(square, board.getOccupancy());
+        return movesTo(position, attacks & ~board.getOccupancy(color));
     }
 
     /**
@@ -77,10 +82,11 @@ public class ChessPieceMoves {
      */
     public static Collection<ChessMove> straightMoves(ChessBoard board, ChessPosition position,
                                                       ChessGame.TeamColor color, int distance) {
+        if (distance >= 7) return straightMoves(board, position, color);
         HashSet<ChessMove> moves = new HashSet<>();
 
         for (int i = 1; i <= distance; i++) {
-            var n = new ChessPosition(position.row() + i, position.col());
+            var n = ChessPosition.of(position.row() + i, position.col());
             var move = new ChessMove(position, n);
             if (!isValid(board, move, color)) break;
             moves.add(move);
@@ -88,7 +94,7 @@ public class ChessPieceMoves {
         }
 
         for (int i = 1; i <= distance; i++) {
-            var e = new ChessPosition(position.row(), position.col() + i);
+            var e = ChessPosition.of(position.row(), position.col() + i);
             var move = new ChessMove(position, e);
             if (!isValid(board, move, color)) break;
             moves.add(move);
@@ -96,7 +102,7 @@ public class ChessPieceMoves {
         }
 
         for (int i = 1; i <= distance; i++) {
-            var s = new ChessPosition(position.row() - i, position.col());
+            var s = ChessPosition.of(position.row() - i, position.col());
             var move = new ChessMove(position, s);
             if (!isValid(board, move, color)) break;
             moves.add(move);
@@ -104,7 +110,7 @@ public class ChessPieceMoves {
         }
 
         for (int i = 1; i <= distance; i++) {
-            var w = new ChessPosition(position.row(), position.col() - i);
+            var w = ChessPosition.of(position.row(), position.col() - i);
             var move = new ChessMove(position, w);
             if (!isValid(board, move, color)) break;
             moves.add(move);
@@ -114,6 +120,21 @@ public class ChessPieceMoves {
         return moves;
     }
 
+    /**
+     * Builds a move from <code>position</code> to every square in <code>targets</code>
+     *
+     * @return Collection of moves
+     */
+    private static Collection<ChessMove> movesTo(ChessPosition position, long targets) {
+        HashSet<ChessMove> moves = new HashSet<>();
+        while (targets != 0) {
+            var square = Bitboards.firstSquare(targets);
+            targets &= targets - 1;
+            moves.add(new ChessMove(position, Bitboards.position(square)));
+        }
+        return moves;
+    }
+
     /**
      * Calculates the pawn moves for a given position on the board
      *
@@ -131,7 +152,7 @@ public class ChessPieceMoves {
             startingRow = 7;
             endRow = 1;
         }
-        var forwardMove = new ChessMove(position, new ChessPosition(row + forward, col));
+        var forwardMove = new ChessMove(position, ChessPosition.of(row + forward, col));
         if (isValid(board, forwardMove, color, false)) {
             if (forwardMove.getEndPosition().row() == endRow) {
                 moves.addAll(getPromotionMoves(forwardMove));
@@ -139,12 +160,12 @@ public class ChessPieceMoves {
                 moves.add(forwardMove);
             }
             if (row == startingRow) {
-                var doubleForwardMove = new ChessMove(position, new ChessPosition(row + forward * 2, col));
+                var doubleForwardMove = new ChessMove(position, ChessPosition.of(row + forward * 2, col));
                 if (isValid(board, doubleForwardMove, color, false)) moves.add(doubleForwardMove);
             }
         }
 
-        var diagonalCaptureLeft = new ChessMove(position, new ChessPosition(row + forward, col - 1));
+        var diagonalCaptureLeft = new ChessMove(position, ChessPosition.of(row + forward, col - 1));
         if (isValid(board, diagonalCaptureLeft, color) && isCapture(board, diagonalCaptureLeft, color)) {
             if (diagonalCaptureLeft.getEndPosition().row() == endRow) {
                 moves.addAll(getPromotionMoves(diagonalCaptureLeft));
@@ -153,7 +174,7 @@ public class ChessPieceMoves {
             }
         }
 
-        var diagonalCaptureRight = new ChessMove(position, new ChessPosition(row + forward, col + 1));
+        var diagonalCaptureRight = new ChessMove(position, ChessPosition.of(row + forward, col + 1));
         if (isValid(board, diagonalCaptureRight, color) && isCapture(board, diagonalCaptureRight, color)) {
             if (diagonalCaptureRight.getEndPosition().row() == endRow) {
                 moves.addAll(getPromotionMoves(diagonalCaptureRight));
@@ -197,7 +218,7 @@ public class ChessPieceMoves {
 
         if (position.col() != enPassantPosition.col() + 1 && position.col() != enPassantPosition.col() - 1) return null;
 
-        return new EnPassantChessMove(position, enPassantPosition, new ChessPosition(position.row(),
+        return new EnPassantChessMove(position, enPassantPosition, ChessPosition.of(position.row(),
                                                                                      enPassantPosition.col()));
     }
 
@@ -206,14 +227,14 @@ public class ChessPieceMoves {
         var moves = new HashSet<ChessMove>();
         int col = position.col();
         int row = position.row();
-        moves.add(new ChessMove(position, new ChessPosition(row + 2, col + 1))); // NNE
-        moves.add(new ChessMove(position, new ChessPosition(row + 1, col + 2))); // ENE
-        moves.add(new ChessMove(position, new ChessPosition(row - 1, col + 2))); // ESE
-        moves.add(new ChessMove(position, new ChessPosition(row - 2, col + 1))); // SSE
-        moves.add(new ChessMove(position, new ChessPosition(row - 2, col - 1))); // SSW
-        moves.add(new ChessMove(position, new ChessPosition(row - 1, col - 2))); // WSW
-        moves.add(new ChessMove(position, new ChessPosition(row + 1, col - 2))); // WNW
-        moves.add(new ChessMove(position, new ChessPosition(row + 2, col - 1))); // NNW
+        moves.add(new ChessMove(position, ChessPosition.of(row + 2, col + 1))); // NNE
+        moves.add(new ChessMove(position, ChessPosition.of(row + 1, col + 2))); // ENE
+        moves.add(new ChessMove(position, ChessPosition.of(row - 1, col + 2))); // ESE
+        moves.add(new ChessMove(position, ChessPosition.of(row - 2, col + 1))); // SSE
+        moves.add(new ChessMove(position, ChessPosition.of(row - 2, col - 1))); // SSW
+        moves.add(new ChessMove(position, ChessPosition.of(row - 1, col - 2))); // WSW
+        moves.add(new ChessMove(position, ChessPosition.of(row + 1, col - 2))); // WNW
+        moves.add(new ChessMove(position, ChessPosition.of(row + 2, col - 1))); // NNW
         return moves.stream().filter(m -> isValid(board, m, color)).collect(Collectors.toSet());
     }
 
@@ -221,10 +242,10 @@ public class ChessPieceMoves {
                                                             ChessGame.TeamColor color) {
         var kingsideCastleMoves = new ArrayList<ChessMove>();
         var kingRow = color == ChessGame.TeamColor.WHITE ? 1 : 8;
-        var kingPosition = new ChessPosition(kingRow, 5);
+        var kingPosition = ChessPosition.of(kingRow, 5);
         if (!position.equals(kingPosition)) return kingsideCastleMoves;
-        var kingside1 = new ChessMove(position, new ChessPosition(position.row(), 6));
-        var kingside2 = new ChessMove(position, new ChessPosition(position.row(), 7));
+        var kingside1 = new ChessMove(position, ChessPosition.of(position.row(), 6));
+        var kingside2 = new ChessMove(position, ChessPosition.of(position.row(), 7));
         if (isValid(board, kingside1, color, false) && isValid(board, kingside2, color, false)) {
             kingsideCastleMoves.add(kingside1);
             kingsideCastleMoves.add(kingside2);
@@ -232,7 +253,7 @@ public class ChessPieceMoves {
             return kingsideCastleMoves;
         }
 
-        var rookMove = new ChessMove(new ChessPosition(position.row(), 8), new ChessPosition(position.row(), 6));
+        var rookMove = new ChessMove(ChessPosition.of(position.row(), 8), ChessPosition.of(position.row(), 6));
         if (isValid(board, rookMove, color, false)) {
             kingsideCastleMoves.add(rookMove);
         }
@@ -244,10 +265,10 @@ public class ChessPieceMoves {
                                                              ChessGame.TeamColor color) {
         var queensideCastleMoves = new ArrayList<ChessMove>();
         var kingRow = color == ChessGame.TeamColor.WHITE ? 1 : 8;
-        var kingPosition = new ChessPosition(kingRow, 5);
+        var kingPosition = ChessPosition.of(kingRow, 5);
         if (!position.equals(kingPosition)) return queensideCastleMoves;
-        var queenside1 = new ChessMove(position, new ChessPosition(position.row(), 4));
-        var queenside2 = new ChessMove(position, new ChessPosition(position.row(), 3));
+        var queenside1 = new ChessMove(position, ChessPosition.of(position.row(), 4));
+        var queenside2 = new ChessMove(position, ChessPosition.of(position.row(), 3));
         if (isValid(board, queenside1, color, false) && isValid(board, queenside2, color, false)) {
             queensideCastleMoves.add(queenside1);
             queensideCastleMoves.add(queenside2);
@@ -255,8 +276,8 @@ public class ChessPieceMoves {
             return queensideCastleMoves;
         }
 
-        var rookMove1 = new ChessMove(new ChessPosition(position.row(), 1), new ChessPosition(position.row(), 2));
-        var rookMove2 = new ChessMove(new ChessPosition(position.row(), 1), new ChessPosition(position.row(), 4));
+        var rookMove1 = new ChessMove(ChessPosition.of(position.row(), 1), ChessPosition.of(position.row(), 2));
+        var rookMove2 = new ChessMove(ChessPosition.of(position.row(), 1), ChessPosition.of(position.row(), 4));
         if (isValid(board, rookMove1, color, false) && isValid(board, rookMove2, color, false)) {
             queensideCastleMoves.add(rookMove1);
             queensideCastleMoves.add(rookMove2);
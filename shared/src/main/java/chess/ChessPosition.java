@@ -1,6 +1,13 @@
 package chess;
 
-import java.util.Objects;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
 
 /**
  * Represents a single square position on a chess board
@@ -8,7 +15,18 @@ import java.util.Objects;
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
+@JsonAdapter(ChessPosition.GsonAdapter.class)
 public final class ChessPosition {
+    private static final ChessPosition[] POSITIONS = new ChessPosition[64];
+
+    static {
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                POSITIONS[(row - 1) * 8 + (col - 1)] = new ChessPosition(row, col);
+            }
+        }
+    }
+
     private final int row;
     private final int col;
 
@@ -20,6 +38,17 @@ public final class ChessPosition {
         this.col = col;
     }
 
+    /**
+     * Gets the shared instance for a square. Positions off the board are not cached, so a new one is returned for
+     * those.
+     *
+     * @return the position at <code>row</code> and <code>col</code>
+     */
+    public static ChessPosition of(int row, int col) {
+        if (row < 1 || row > 8 || col < 1 || col > 8) return new ChessPosition(row, col);
+        return POSITIONS[(row - 1) * 8 + (col - 1)];
+    }
+
     @Override
     public String toString() {
         final char[] columnNames = {'a', 'b', 'c', 'd', 'e', 'f', 'g', 'h'};
@@ -35,11 +64,11 @@ public final class ChessPosition {
     }
 
     public ChessPosition north(){
-        return new ChessPosition(row + 1, col);
+        return of(row + 1, col);
     }
 
     public ChessPosition south() {
-        return new ChessPosition(row - 1, col);
+        return of(row - 1, col);
     }
 
     @Override
@@ -53,7 +82,45 @@ public final class ChessPosition {
 
     @Override
     public int hashCode() {
-        return Objects.hash(row, col);
+        return 31 * row + col;
+    }
+
+    /**
+     * Reads and writes positions in the same shape as Gson's default, but hands back the shared instances
+     */
+    static final class GsonAdapter extends TypeAdapter<ChessPosition> {
+        @Override
+        public void write(JsonWriter out, ChessPosition position) throws IOException {
+            if (position == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("row").value(position.row);
+            out.name("col").value(position.col);
+            out.endObject();
+        }
+
+        @Override
+        public ChessPosition read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            Integer row = null;
+            Integer col = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "row" -> row = in.nextInt();
+                    case "col" -> col = in.nextInt();
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            if (row == null || col == null) throw new JsonParseException("Position needs both a row and a col");
+            return of(row, col);
+        }
     }
 
 }
@@ -0,0 +1,364 @@
+package chess;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The solved value of every position with one set of pieces, such as king and queen against king ("KQvK").
+ * <p>
+ * There is one byte per position, indexed by the side to move and then the square of each piece in the order the
+ * name lists them, white's pieces first. A byte of 0 is a draw; a positive byte <code>n</code> is a win for the
+ * side to move with mate in <code>2n - 1</code> plies; a negative byte <code>-n</code> is a loss, mated in
+ * <code>2n - 2</code> plies. The plies of a win are always odd and of a loss even, so this is exact, and it holds
+ * mates up to 126 moves. Positions that cannot occur, like the side not to move being in check, hold
+ * {@link #ILLEGAL}.
+ * <p>
+ * Positions are assumed to have no castling rights and no en passant capture, so tables with pawns on both sides
+ * are not supported. The fifty-move rule is ignored.
+ * <p>
+ * Tables are generated by retrograde analysis: positions that are mate are found first, then every pass over the
+ * unsolved positions solves those one ply further from mate, until a pass solves nothing and what is left is drawn.
+ * Captures and promotions lead to positions in smaller tables, which must already be in the {@link Tablebase}.
+ * A table file is the bytes and nothing else, and is memory mapped when opened.
+ */
+public final class EndgameTable {
+
+    public static final byte ILLEGAL = Byte.MIN_VALUE;
+
+    /**
+     * A single mapping can be at most 2 GB, so tables are stored in segments of 1 GB
+     */
+    private static final int SEGMENT_SHIFT = 30;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+    private final String name;
+    /**
+     * The {@link Bitboards#pieceIndex} of each piece, in index order
+     */
+    private final int[] pieces;
+    private final ByteBuffer[] segments;
+    private final long size;
+
+    private EndgameTable(String name, ByteBuffer[] segments) {
+        this.name = name;
+        this.pieces = parse(name);
+        this.segments = segments;
+        this.size = size(pieces.length);
+    }
+
+    /**
+     * Maps a table file into memory. The file name, less its extension, is the table's name.
+     *
+     * @throws IOException if the file cannot be read or is the wrong size for its name
+     */
+    public static EndgameTable open(Path path) throws IOException {
+        var fileName = path.getFileName().toString();
+        var name = fileName.endsWith(Tablebase.EXTENSION)
+                ? fileName.substring(0, fileName.length() - Tablebase.EXTENSION.length()) : fileName;
+        var size = size(parse(name).length);
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() != size) {
+                throw new IOException("Table " + name + " should be " + size + " bytes but is " + channel.size());
+            }
+            var segments = new ByteBuffer[(int) ((size + SEGMENT_MASK) >>> SEGMENT_SHIFT)];
+            for (int i = 0; i < segments.length; i++) {
+                var start = (long) i << SEGMENT_SHIFT;
+                var segmentSize = Math.min(size - start, 1L << SEGMENT_SHIFT);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, segmentSize);
+            }
+            return new EndgameTable(name, segments);
+        }
+    }
+
+    /**
+     * Writes the table to a file, by way of a temporary file so a reader never maps a partly written table
+     */
+    public void write(Path path) throws IOException {
+        var temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (var channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                            StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (var segment : segments) {
+                var buffer = segment.duplicate().clear();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the number of positions in the table, legal or not
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Looks up a position with this table's pieces
+     *
+     * @param flip true if the board's colors are the other way round from the table's, in which case the board is
+     *             mirrored top to bottom and its colors swapped
+     * @return the position's byte, as described above
+     */
+    byte value(ChessBoard board, ChessGame.TeamColor turn, boolean flip) {
+        long index = flip ? Bitboards.opponent(turn).ordinal() : turn.ordinal();
+        for (int slot = 0; slot < pieces.length; slot++) {
+            var piece = flip ? flipColor(pieces[slot]) : pieces[slot];
+            var bits = board.getPieces(Bitboards.pieceIndexColor(piece), Bitboards.pieceIndexType(piece));
+            // a second piece of the same kind takes the next square
+            for (int earlier = 0; earlier < slot; earlier++) {
+                if (pieces[earlier] == pieces[slot]) bits &= bits - 1;
+            }
+            var square = Long.numberOfTrailingZeros(bits);
+            index = index * 64 + (flip ? square ^ 56 : square);
+        }
+        return get(index);
+    }
+
+    /**
+     * Solves every position with the pieces in <code>name</code>
+     *
+     * @param tablebase holds the tables that captures and promotions lead to
+     * @throws IllegalStateException if one of those tables is missing
+     */
+    static EndgameTable generate(String name, Tablebase tablebase) {
+        var size = size(parse(name).length);
+        var segments = new ByteBuffer[(int) ((size + SEGMENT_MASK) >>> SEGMENT_SHIFT)];
+        for (int i = 0; i < segments.length; i++) {
+            var segmentSize = Math.min(size - ((long) i << SEGMENT_SHIFT), 1L << SEGMENT_SHIFT);
+            segments[i] = ByteBuffer.allocate((int) segmentSize);
+        }
+        var table = new EndgameTable(name, segments);
+        new Generator(table, tablebase).run();
+        return table;
+    }
+
+    static byte win(int plies) {
+        return (byte) ((plies + 1) / 2);
+    }
+
+    static byte loss(int plies) {
+        return (byte) (-(plies / 2) - 1);
+    }
+
+    static boolean isWin(int value) {
+        return value > 0;
+    }
+
+    static boolean isLoss(int value) {
+        return value < 0 && value != ILLEGAL;
+    }
+
+    /**
+     * @return the plies until mate for a win or loss
+     */
+    static int plies(int value) {
+        return value > 0 ? 2 * value - 1 : 2 * (-value - 1);
+    }
+
+    /**
+     * @return the {@link Bitboards#pieceIndex} of each piece in a name like <code>KRPvKB</code>
+     */
+    static int[] parse(String name) {
+        var sides = name.split("v", -1);
+        if (sides.length != 2 || !sides[0].startsWith("K") || !sides[1].startsWith("K")
+                || name.length() - 1 > Tablebase.MAX_PIECES) {
+            throw new IllegalArgumentException("Not a table name: " + name);
+        }
+        var pieces = new int[name.length() - 1];
+        var slot = 0;
+        for (var color : ChessGame.TeamColor.values()) {
+            var side = sides[color.ordinal()];
+            for (int i = 0; i < side.length(); i++) {
+                var type = switch (side.charAt(i)) {
+                    case 'K' -> ChessPiece.PieceType.KING;
+                    case 'Q' -> ChessPiece.PieceType.QUEEN;
+                    case 'R' -> ChessPiece.PieceType.ROOK;
+                    case 'B' -> ChessPiece.PieceType.BISHOP;
+                    case 'N' -> ChessPiece.PieceType.KNIGHT;
+                    case 'P' -> ChessPiece.PieceType.PAWN;
+                    default -> throw new IllegalArgumentException("Not a table name: " + name);
+                };
+                if ((type == ChessPiece.PieceType.KING) != (i == 0)) {
+                    throw new IllegalArgumentException("Each side needs exactly one king: " + name);
+                }
+                pieces[slot++] = Bitboards.pieceIndex(color, type);
+            }
+        }
+        return pieces;
+    }
+
+    static int flipColor(int pieceIndex) {
+        return (pieceIndex + Bitboards.PIECE_TYPE_COUNT) % Bitboards.PIECE_INDEX_COUNT;
+    }
+
+    private static long size(int pieceCount) {
+        return 2L << (6 * pieceCount);
+    }
+
+    private byte get(long index) {
+        return segments[(int) (index >>> SEGMENT_SHIFT)].get((int) (index & SEGMENT_MASK));
+    }
+
+    private void set(long index, byte value) {
+        segments[(int) (index >>> SEGMENT_SHIFT)].put((int) (index & SEGMENT_MASK), value);
+    }
+
+    /**
+     * The state of one table's generation: a board that is set up for one position at a time, and what it needs to
+     * find each position's successors
+     */
+    private static final class Generator {
+        private final EndgameTable table;
+        private final Tablebase tablebase;
+        private final int[] pieces;
+        private final int[] squares;
+        private final ChessPiece[] placed;
+        private final ChessBoard board = new ChessBoard();
+        private final ChessMoveHistory history = new ChessMoveHistory();
+        private final MoveList moves = new MoveList();
+        private int externalMaxPlies = 0;
+
+        Generator(EndgameTable table, Tablebase tablebase) {
+            this.table = table;
+            this.tablebase = tablebase;
+            pieces = table.pieces;
+            squares = new int[pieces.length];
+            placed = new ChessPiece[pieces.length];
+            history.setCastlingRights(0);
+        }
+
+        void run() {
+            for (long index = 0; index < table.size; index++) {
+                if (!setUp(index)) {
+                    table.set(index, ILLEGAL);
+                    continue;
+                }
+                var turn = turn(index);
+                moves.clear();
+                MoveGenerator.generate(board, history, turn, moves);
+                if (moves.isEmpty() && board.isSquareAttacked(board.getKingSquare(turn), Bitboards.opponent(turn))) {
+                    table.set(index, loss(0));
+                }
+            }
+
+            // once a pass finds nothing, later ones can only find mates that go through a capture or promotion
+            for (int plies = 1; ; plies++) {
+                // a loss this long would not fit in a byte
+                if (plies >= 2 * Byte.MAX_VALUE) throw new IllegalStateException("Mate too long for " + table.name);
+                if (!solve(plies) && plies > externalMaxPlies + 1) break;
+            }
+        }
+
+        /**
+         * Solves the positions that are mate, or mated, in exactly <code>plies</code>
+         *
+         * @return true if any were found
+         */
+        private boolean solve(int plies) {
+            var found = false;
+            for (long index = 0; index < table.size; index++) {
+                if (table.get(index) != 0) continue;
+                setUp(index);
+                var turn = turn(index);
+                moves.clear();
+                MoveGenerator.generate(board, history, turn, moves);
+                if (moves.isEmpty()) continue;
+
+                var shortestWin = Integer.MAX_VALUE;
+                var longestLoss = 0;
+                var allLose = true;
+                for (int i = 0; i < moves.size(); i++) {
+                    var next = successor(index, moves.get(i), turn);
+                    if (isLoss(next)) {
+                        shortestWin = Math.min(shortestWin, plies(next) + 1);
+                    } else if (isWin(next)) {
+                        longestLoss = Math.max(longestLoss, plies(next) + 1);
+                    } else {
+                        allLose = false;
+                    }
+                }
+                if (shortestWin == plies) {
+                    table.set(index, win(plies));
+                    found = true;
+                } else if (shortestWin == Integer.MAX_VALUE && allLose && longestLoss == plies) {
+                    table.set(index, loss(plies));
+                    found = true;
+                }
+            }
+            return found;
+        }
+
+        /**
+         * @return the value of the position after <code>move</code>, for the other side, as it is known so far
+         */
+        private int successor(long index, int move, ChessGame.TeamColor turn) {
+            var from = Move.from(move);
+            var to = Move.to(move);
+            if (!Move.isCapture(move) && !Move.isPromotion(move)) {
+                var slot = 0;
+                while (squares[slot] != from) slot++;
+                var shift = 6 * (pieces.length - 1 - slot);
+                var turnBit = 1L << (6 * pieces.length);
+                return table.get((index ^ turnBit) + ((long) (to - from) << shift));
+            }
+
+            var applied = board.applyMove(Move.toChessMove(move));
+            var value = tablebase.probe(board, Bitboards.opponent(turn));
+            board.unApplyMove(applied);
+            if (value == Tablebase.NOT_FOUND) {
+                throw new IllegalStateException("Generating " + table.name + " needs a table it leads to");
+            }
+            if (value != 0) externalMaxPlies = Math.max(externalMaxPlies, plies(value));
+            return value;
+        }
+
+        /**
+         * Puts the pieces of a position on the board
+         *
+         * @return false if the position cannot occur
+         */
+        private boolean setUp(long index) {
+            for (int slot = 0; slot < pieces.length; slot++) {
+                if (placed[slot] != null) board.removePiece(Bitboards.position(squares[slot]));
+                placed[slot] = null;
+            }
+
+            long occupied = 0;
+            for (int slot = pieces.length - 1; slot >= 0; slot--) {
+                var square = (int) (index & 63);
+                index >>>= 6;
+                squares[slot] = square;
+                var bit = Bitboards.bit(square);
+                if ((occupied & bit) != 0) return false;
+                occupied |= bit;
+                var isPawn = Bitboards.pieceIndexType(pieces[slot]) == ChessPiece.PieceType.PAWN;
+                if (isPawn && (square < 8 || square >= 56)) return false;
+            }
+            for (int slot = 0; slot < pieces.length; slot++) {
+                placed[slot] = ChessPiece.of(Bitboards.pieceIndexColor(pieces[slot]),
+                                             Bitboards.pieceIndexType(pieces[slot]));
+                board.addPiece(Bitboards.position(squares[slot]), placed[slot]);
+            }
+
+            // the side that just moved cannot have left its king in check
+            var turn = index == 0 ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+            var opponent = Bitboards.opponent(turn);
+            return !board.isSquareAttacked(board.getKingSquare(opponent), turn);
+        }
+
+        private ChessGame.TeamColor turn(long index) {
+            return (index >>> (6 * pieces.length)) == 0 ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+        }
+    }
+}
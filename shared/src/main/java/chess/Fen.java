@@ -0,0 +1,142 @@
+package chess;
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation, the one-line format used by perft suites, opening books
+ * and most other chess tools.
+ * <p>
+ * The fullmove number is accepted but not kept, since {@link ChessGame} does not track it.
+ */
+public final class Fen {
+
+    public static final String START_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private Fen() {
+    }
+
+    /**
+     * Sets up a game from a FEN string
+     *
+     * @param fen the position, with at least the placement and side to move fields
+     * @return a game in that position
+     * @throws IllegalArgumentException if the string is not valid FEN
+     */
+    public static ChessGame parse(String fen) {
+        var fields = fen.trim().split("\\s+");
+        if (fields.length < 2) throw new IllegalArgumentException("Missing FEN fields: " + fen);
+
+        var board = new ChessBoard();
+        var ranks = fields[0].split("/");
+        if (ranks.length != 8) throw new IllegalArgumentException("Expected 8 ranks: " + fen);
+        for (int i = 0; i < 8; i++) {
+            var row = 8 - i;
+            var col = 1;
+            for (var c : ranks[i].toCharArray()) {
+                if (c >= '1' && c <= '8') {
+                    col += c - '0';
+                    continue;
+                }
+                if (col > 8) throw new IllegalArgumentException("Rank too long: " + ranks[i]);
+                board.addPiece(ChessPosition.of(row, col++), piece(c));
+            }
+            if (col != 9) throw new IllegalArgumentException("Rank has the wrong length: " + ranks[i]);
+        }
+
+        var game = new ChessGame();
+        game.setBoard(board);
+        game.setTeamTurn(switch (fields[1]) {
+            case "w" -> ChessGame.TeamColor.WHITE;
+            case "b" -> ChessGame.TeamColor.BLACK;
+            default -> throw new IllegalArgumentException("Bad side to move: " + fields[1]);
+        });
+
+        var history = game.getMoveHistory();
+        history.setCastlingRights(fields.length > 2 ? castlingRights(fields[2]) : 0);
+        if (fields.length > 3 && !fields[3].equals("-")) {
+            history.setEnPassantPosition(position(fields[3]));
+        }
+        if (fields.length > 4) {
+            try {
+                history.setHalfmoveClock(Integer.parseInt(fields[4]));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Bad halfmove clock: " + fields[4]);
+            }
+        }
+        return game;
+    }
+
+    /**
+     * Writes a game's current position as FEN
+     *
+     * @return the FEN string, with the fullmove number given as <code>1</code>
+     */
+    public static String format(ChessGame game) {
+        var board = game.getBoard();
+        var builder = new StringBuilder(90);
+        for (int row = 8; row >= 1; row--) {
+            var empty = 0;
+            for (int col = 1; col <= 8; col++) {
+                var piece = board.getPiece(ChessPosition.of(row, col));
+                if (piece == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) builder.append(empty);
+                empty = 0;
+                builder.append(piece);
+            }
+            if (empty > 0) builder.append(empty);
+            if (row > 1) builder.append('/');
+        }
+
+        builder.append(game.getTeamTurn() == ChessGame.TeamColor.WHITE ? " w " : " b ");
+
+        var rights = game.getMoveHistory().getCastlingRights();
+        if (rights == 0) builder.append('-');
+        if ((rights & ChessMoveHistory.WHITE_KING_SIDE) != 0) builder.append('K');
+        if ((rights & ChessMoveHistory.WHITE_QUEEN_SIDE) != 0) builder.append('Q');
+        if ((rights & ChessMoveHistory.BLACK_KING_SIDE) != 0) builder.append('k');
+        if ((rights & ChessMoveHistory.BLACK_QUEEN_SIDE) != 0) builder.append('q');
+
+        var enPassantPosition = game.getMoveHistory().getEnPassantPosition();
+        builder.append(' ').append(enPassantPosition == null ? "-" : enPassantPosition.toString());
+        builder.append(' ').append(game.getMoveHistory().getHalfmoveClock());
+        return builder.append(" 1").toString();
+    }
+
+    private static ChessPiece piece(char c) {
+        var color = Character.isUpperCase(c) ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+        var type = switch (Character.toLowerCase(c)) {
+            case 'k' -> ChessPiece.PieceType.KING;
+            case 'q' -> ChessPiece.PieceType.QUEEN;
+            case 'b' -> ChessPiece.PieceType.BISHOP;
+            case 'n' -> ChessPiece.PieceType.KNIGHT;
+            case 'r' -> ChessPiece.PieceType.ROOK;
+            case 'p' -> ChessPiece.PieceType.PAWN;
+            default -> throw new IllegalArgumentException("Unknown piece: " + c);
+        };
+        return ChessPiece.of(color, type);
+    }
+
+    private static int castlingRights(String field) {
+        if (field.equals("-")) return 0;
+        var rights = 0;
+        for (var c : field.toCharArray()) {
+            rights |= switch (c) {
+                case 'K' -> ChessMoveHistory.WHITE_KING_SIDE;
+                case 'Q' -> ChessMoveHistory.WHITE_QUEEN_SIDE;
+                case 'k' -> ChessMoveHistory.BLACK_KING_SIDE;
+                case 'q' -> ChessMoveHistory.BLACK_QUEEN_SIDE;
+                default -> throw new IllegalArgumentException("Bad castling rights: " + field);
+            };
+        }
+        return rights;
+    }
+
+    private static ChessPosition position(String square) {
+        if (square.length() != 2) throw new IllegalArgumentException("Bad square: " + square);
+        var col = square.charAt(0) - 'a' + 1;
+        var row = square.charAt(1) - '0';
+        if (col < 1 || col > 8 || row < 1 || row > 8) throw new IllegalArgumentException("Bad square: " + square);
+        return ChessPosition.of(row, col);
+    }
+}
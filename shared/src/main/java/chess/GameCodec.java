@@ -0,0 +1,107 @@
+package chess;
+
+/**
+ * Packs a {@link ChessGame} into a few dozen bytes, for storing games where the Gson form's objects for every square
+ * would cost kilobytes.
+ * <p>
+ * The layout, after a version byte, is:
+ * <ul>
+ *     <li>one byte of flags: bit 0 set if black is to move, bit 1 set if the game has ended, and bits 2 to 7 which
+ *     kings and rooks have moved</li>
+ *     <li>the en passant square, or <code>0xFF</code> if there is none</li>
+ *     <li>the halfmove clock, as an unsigned 16-bit number</li>
+ *     <li>the occupied squares, as a 64-bit bitboard</li>
+ *     <li>a {@link Bitboards#pieceIndex} for each occupied square, in square order, four bits each and two to a
+ *     byte</li>
+ * </ul>
+ * Numbers are big-endian. Like the Gson form, this keeps everything {@link ChessGame#equals} compares, but not the
+ * moves that could be taken back.
+ */
+public final class GameCodec {
+
+    public static final byte VERSION = 1;
+
+    /**
+     * The most bytes a game can take: the header, the bitboard and 32 pieces
+     */
+    public static final int MAX_LENGTH = 5 + 8 + 16;
+
+    private static final int HEADER_LENGTH = 5 + 8;
+    private static final int NO_EN_PASSANT = 0xFF;
+
+    private GameCodec() {
+    }
+
+    /**
+     * @return the game in the layout described above
+     */
+    public static byte[] encode(ChessGame game) {
+        var board = game.getBoard();
+        var history = game.getMoveHistory();
+        var occupancy = board.getOccupancy();
+        var pieces = Long.bitCount(occupancy);
+        var bytes = new byte[HEADER_LENGTH + (pieces + 1) / 2];
+
+        bytes[0] = VERSION;
+        bytes[1] = (byte) ((game.getTeamTurn() == ChessGame.TeamColor.BLACK ? 1 : 0) | (game.isEnded() ? 2 : 0)
+                | history.movedFlags() << 2);
+        var enPassantPosition = history.getEnPassantPosition();
+        bytes[2] = (byte) (enPassantPosition == null ? NO_EN_PASSANT : Bitboards.square(enPassantPosition));
+        var halfmoveClock = Math.min(history.getHalfmoveClock(), 0xFFFF);
+        bytes[3] = (byte) (halfmoveClock >>> 8);
+        bytes[4] = (byte) halfmoveClock;
+        for (int i = 0; i < 8; i++) {
+            bytes[5 + i] = (byte) (occupancy >>> (56 - 8 * i));
+        }
+
+        var i = 0;
+        for (var squares = occupancy; squares != 0; squares &= squares - 1, i++) {
+            var piece = board.getPiece(Long.numberOfTrailingZeros(squares));
+            var index = Bitboards.pieceIndex(piece.getTeamColor(), piece.getPieceType());
+            bytes[HEADER_LENGTH + i / 2] |= (byte) (i % 2 == 0 ? index << 4 : index);
+        }
+        return bytes;
+    }
+
+    /**
+     * @return the game that {@link #encode} gave these bytes for
+     * @throws IllegalArgumentException if the bytes are not an encoded game
+     */
+    public static ChessGame decode(byte[] bytes) {
+        if (bytes.length < HEADER_LENGTH) throw new IllegalArgumentException("Encoded game is too short");
+        if (bytes[0] != VERSION) throw new IllegalArgumentException("Unknown game encoding version: " + bytes[0]);
+
+        long occupancy = 0;
+        for (int i = 0; i < 8; i++) {
+            occupancy = occupancy << 8 | (bytes[5 + i] & 0xFF);
+        }
+        if (bytes.length != HEADER_LENGTH + (Long.bitCount(occupancy) + 1) / 2) {
+            throw new IllegalArgumentException("Encoded game has the wrong length for its pieces");
+        }
+
+        var board = new ChessBoard();
+        var i = 0;
+        for (var squares = occupancy; squares != 0; squares &= squares - 1, i++) {
+            var packed = bytes[HEADER_LENGTH + i / 2];
+            var index = (i % 2 == 0 ? packed >>> 4 : packed) & 0xF;
+            if (index >= Bitboards.PIECE_INDEX_COUNT) throw new IllegalArgumentException("Bad piece: " + index);
+            board.addPiece(Bitboards.position(Long.numberOfTrailingZeros(squares)),
+                           ChessPiece.of(Bitboards.pieceIndexColor(index), Bitboards.pieceIndexType(index)));
+        }
+
+        var game = new ChessGame();
+        game.setBoard(board);
+        var flags = bytes[1] & 0xFF;
+        game.setTeamTurn((flags & 1) != 0 ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE);
+        var history = game.getMoveHistory();
+        history.setMovedFlags(flags >>> 2);
+        var enPassant = bytes[2] & 0xFF;
+        if (enPassant != NO_EN_PASSANT) {
+            if (enPassant >= 64) throw new IllegalArgumentException("Bad en passant square: " + enPassant);
+            history.setEnPassantPosition(Bitboards.position(enPassant));
+        }
+        history.setHalfmoveClock((bytes[3] & 0xFF) << 8 | bytes[4] & 0xFF);
+        if ((flags & 2) != 0) game.endGame();
+        return game;
+    }
+}
@@ -0,0 +1,32 @@
+package chess;
+
+/**
+ * The state of a game for the team whose turn it is, worked out in one pass over its legal moves
+ *
+ * @param teamToMove     the team whose turn it is
+ * @param inCheck        whether that team's king is attacked
+ * @param legalMoveCount how many legal moves that team has
+ */
+public record GameStatus(ChessGame.TeamColor teamToMove, boolean inCheck, int legalMoveCount) {
+
+    /**
+     * @return true if the team to move is in check and cannot get out of it
+     */
+    public boolean isCheckmate() {
+        return inCheck && legalMoveCount == 0;
+    }
+
+    /**
+     * @return true if the team to move is not in check but has no legal move
+     */
+    public boolean isStalemate() {
+        return !inCheck && legalMoveCount == 0;
+    }
+
+    /**
+     * @return true if the position ends the game
+     */
+    public boolean isGameOver() {
+        return legalMoveCount == 0;
+    }
+}
@@ -0,0 +1,35 @@
+package chess;
+
+/**
+ * Holds the legal moves of each team for the position a game was last asked about. An entry is used only while the
+ * game's Zobrist key still matches the one it was generated for, so edits made directly to the board are noticed
+ * too; {@link #invalidate()} drops both entries outright when a move is made.
+ */
+final class LegalMoveCache {
+
+    private final MoveList[] moves = new MoveList[ChessGame.TeamColor.values().length];
+    private final long[] keys = new long[moves.length];
+    private final boolean[] valid = new boolean[moves.length];
+
+    /**
+     * @return the legal moves of <code>color</code>, generated only if the cached ones are for another position.
+     * The list belongs to the cache and must not be modified.
+     */
+    MoveList get(ChessBoard board, ChessMoveHistory history, ChessGame.TeamColor color, long key) {
+        var index = color.ordinal();
+        if (moves[index] == null) moves[index] = new MoveList();
+        if (!valid[index] || keys[index] != key) {
+            moves[index].clear();
+            MoveGenerator.generate(board, history, color, moves[index]);
+            keys[index] = key;
+            valid[index] = true;
+        }
+        return moves[index];
+    }
+
+    void invalidate() {
+        for (int i = 0; i < valid.length; i++) {
+            valid[i] = false;
+        }
+    }
+}
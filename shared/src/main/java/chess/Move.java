@@ -0,0 +1,101 @@
+package chess;
+
+/**
+ * Packs a chess move into an <code>int</code> so move generation never has to allocate.
+ * <p>
+ * Layout, from the lowest bit: 6 bits start square, 6 bits end square (see {@link Bitboards}), 3 bits promotion
+ * piece (the {@link ChessPiece.PieceType} ordinal plus one, or zero for none), then one bit each for capture,
+ * en passant, castle and double pawn push. {@link #NONE} is never a real move since it starts and ends on a1.
+ */
+public final class Move {
+
+    public static final int NONE = 0;
+
+    public static final int CAPTURE = 1 << 15;
+    public static final int EN_PASSANT = 1 << 16;
+    public static final int CASTLE = 1 << 17;
+    public static final int DOUBLE_PUSH = 1 << 18;
+
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private Move() {
+    }
+
+    public static int encode(int from, int to, int flags) {
+        return from | (to << 6) | flags;
+    }
+
+    public static int encode(int from, int to, ChessPiece.PieceType promotion, int flags) {
+        var promotionBits = promotion == null ? 0 : promotion.ordinal() + 1;
+        return from | (to << 6) | (promotionBits << 12) | flags;
+    }
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    /**
+     * @return the type of piece a pawn promotes to with this move, or null if it is not a promotion
+     */
+    public static ChessPiece.PieceType promotion(int move) {
+        var bits = (move >>> 12) & 0x7;
+        return bits == 0 ? null : TYPES[bits - 1];
+    }
+
+    public static boolean isPromotion(int move) {
+        return (move & (0x7 << 12)) != 0;
+    }
+
+    public static boolean isCapture(int move) {
+        return (move & CAPTURE) != 0;
+    }
+
+    public static boolean isEnPassant(int move) {
+        return (move & EN_PASSANT) != 0;
+    }
+
+    public static boolean isCastle(int move) {
+        return (move & CASTLE) != 0;
+    }
+
+    public static boolean isDoublePush(int move) {
+        return (move & DOUBLE_PUSH) != 0;
+    }
+
+    /**
+     * @return true if both moves go between the same squares with the same promotion, ignoring the flags
+     */
+    public static boolean sameSquares(int move, int other) {
+        return (move & 0x7FFF) == (other & 0x7FFF);
+    }
+
+    public static ChessMove toChessMove(int move) {
+        return new ChessMove(Bitboards.position(from(move)), Bitboards.position(to(move)), promotion(move));
+    }
+
+    /**
+     * Encodes the squares and promotion of a <code>ChessMove</code>. The flags are left empty, since they depend on
+     * the position; use {@link MoveList#find} to get the generated move with its flags.
+     */
+    public static int fromChessMove(ChessMove move) {
+        return encode(Bitboards.square(move.getStartPosition()), Bitboards.square(move.getEndPosition()),
+                      move.getPromotionPiece(), 0);
+    }
+
+    /**
+     * @return the move in coordinate notation, like <code>e2e4</code> or <code>e7e8q</code>
+     */
+    public static String toString(int move) {
+        var builder = new StringBuilder(5);
+        builder.append(Bitboards.position(from(move))).append(Bitboards.position(to(move)));
+        var promotion = promotion(move);
+        if (promotion != null) {
+            builder.append(ChessPiece.of(ChessGame.TeamColor.BLACK, promotion));
+        }
+        return builder.toString();
+    }
+}
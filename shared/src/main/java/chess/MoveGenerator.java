@@ -0,0 +1,242 @@
+package chess;
+
+import java.util.Collection;
+
+/**
+ * Generates strictly legal moves from the bitboards kept by {@link ChessBoard}.
+ * <p>
+ * Moves are written as {@link Move}-encoded ints into a caller-supplied {@link MoveList}, so the generation loop
+ * allocates nothing; the <code>Collection&lt;ChessMove&gt;</code> overloads convert only at the end.
+ * <p>
+ * Checkers and pinned pieces are worked out once per call. Every candidate is then masked against the squares that
+ * resolve a check and, for pinned pieces, the line through the king, so no move has to be applied and undone to
+ * find out whether it leaves the king in danger. Only the king itself and en passant, which removes two pieces from
+ * a line at once, are tested against the attack tables directly.
+ */
+public final class MoveGenerator {
+
+    private static final ChessPiece.PieceType[] PROMOTION_TYPES = {ChessPiece.PieceType.QUEEN,
+            ChessPiece.PieceType.ROOK, ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.KNIGHT};
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * Calculates every legal move for one team
+     *
+     * @return Collection of legal moves
+     */
+    public static Collection<ChessMove> legalMoves(ChessBoard board, ChessMoveHistory history,
+                                                   ChessGame.TeamColor color) {
+        var moves = new MoveList();
+        generate(board, history, color, moves);
+        return moves.toChessMoves();
+    }
+
+    /**
+     * Calculates the legal moves for the piece on <code>position</code>
+     *
+     * @return Collection of legal moves, or null if there is no piece at <code>position</code>
+     */
+    public static Collection<ChessMove> legalMoves(ChessBoard board, ChessMoveHistory history,
+                                                   ChessPosition position) {
+        var piece = board.getPiece(position);
+        if (piece == null) return null;
+        var moves = new MoveList();
+        generate(board, history, piece.getTeamColor(), Bitboards.bit(Bitboards.square(position)), moves);
+        return moves.toChessMoves();
+    }
+
+    /**
+     * Adds every legal move of one team to <code>moves</code>
+     */
+    public static void generate(ChessBoard board, ChessMoveHistory history, ChessGame.TeamColor color,
+                                MoveList moves) {
+        generate(board, history, color, -1L, moves);
+    }
+
+    /**
+     * Adds the legal moves of the pieces of <code>us</code> standing on <code>fromMask</code> to <code>moves</code>
+     */
+    public static void generate(ChessBoard board, ChessMoveHistory history, ChessGame.TeamColor us, long fromMask,
+                                MoveList moves) {
+        var them = Bitboards.opponent(us);
+        var ours = board.getOccupancy(us);
+        var theirs = board.getOccupancy(them);
+        var occupancy = ours | theirs;
+        var kingSquare = board.getKingSquare(us);
+
+        long checkers = 0;
+        long pinned = 0;
+        if (kingSquare != Bitboards.NO_SQUARE) {
+            checkers = board.getAttackers(kingSquare, them, occupancy);
+            pinned = pinnedPieces(board, kingSquare, us, them, ours, occupancy);
+
+            if ((fromMask & Bitboards.bit(kingSquare)) != 0) {
+                addKingMoves(board, history, us, them, kingSquare, ours, occupancy, checkers == 0, moves);
+            }
+        }
+
+        // in double check only the king can move
+        if (Long.bitCount(checkers) > 1) return;
+
+        var checkMask = -1L;
+        if (checkers != 0) {
+            checkMask = Bitboards.between(kingSquare, Bitboards.firstSquare(checkers)) | checkers;
+        }
+        var targets = ~ours & checkMask;
+
+        var knights = board.getPieces(us, ChessPiece.PieceType.KNIGHT) & fromMask & ~pinned;
+        while (knights != 0) {
+            var from = Bitboards.firstSquare(knights);
+            knights &= knights - 1;
+            addMoves(from, Bitboards.knightAttacks(from) & targets, theirs, moves);
+        }
+
+        var bishops = (board.getPieces(us, ChessPiece.PieceType.BISHOP) |
+                board.getPieces(us, ChessPiece.PieceType.QUEEN)) & fromMask;
+        while (bishops != 0) {
+            var from = Bitboards.firstSquare(bishops);
+            bishops &= bishops - 1;
+            var attacks = SlidingAttacks.bishopAttacks(from, occupancy) & targets;
+            addMoves(from, attacks & pinMask(from, kingSquare, pinned), theirs, moves);
+        }
+
+        var rooks = (board.getPieces(us, ChessPiece.PieceType.ROOK) |
+                board.getPieces(us, ChessPiece.PieceType.QUEEN)) & fromMask;
+        while (rooks != 0) {
+            var from = Bitboards.firstSquare(rooks);
+            rooks &= rooks - 1;
+            var attacks = SlidingAttacks.rookAttacks(from, occupancy) & targets;
+            addMoves(from, attacks & pinMask(from, kingSquare, pinned), theirs, moves);
+        }
+
+        var pawns = board.getPieces(us, ChessPiece.PieceType.PAWN) & fromMask;
+        while (pawns != 0) {
+            var from = Bitboards.firstSquare(pawns);
+            pawns &= pawns - 1;
+            addPawnMoves(board, history, us, them, from, kingSquare, theirs, occupancy,
+                         checkMask & pinMask(from, kingSquare, pinned), moves);
+        }
+    }
+
+    /**
+     * Finds the pieces of <code>us</code> that are the only blocker between their king and an enemy slider
+     *
+     * @return the set of pinned pieces
+     */
+    private static long pinnedPieces(ChessBoard board, int kingSquare, ChessGame.TeamColor us,
+                                     ChessGame.TeamColor them, long ours, long occupancy) {
+        var queens = board.getPieces(them, ChessPiece.PieceType.QUEEN);
+        var snipers = (SlidingAttacks.rookAttacks(kingSquare, 0) &
+                (board.getPieces(them, ChessPiece.PieceType.ROOK) | queens))
+                | (SlidingAttacks.bishopAttacks(kingSquare, 0) &
+                (board.getPieces(them, ChessPiece.PieceType.BISHOP) | queens));
+
+        long pinned = 0;
+        while (snipers != 0) {
+            var sniper = Bitboards.firstSquare(snipers);
+            snipers &= snipers - 1;
+            var blockers = Bitboards.between(kingSquare, sniper) & occupancy;
+            if (Long.bitCount(blockers) == 1 && (blockers & ours) != 0) pinned |= blockers;
+        }
+        return pinned;
+    }
+
+    /**
+     * @return the squares a piece on <code>from</code> may move to without exposing its king
+     */
+    private static long pinMask(int from, int kingSquare, long pinned) {
+        return (pinned & Bitboards.bit(from)) == 0 ? -1L : Bitboards.line(kingSquare, from);
+    }
+
+    private static void addKingMoves(ChessBoard board, ChessMoveHistory history, ChessGame.TeamColor us,
+                                     ChessGame.TeamColor them, int kingSquare, long ours, long occupancy,
+                                     boolean canCastle, MoveList moves) {
+        // the king must not be able to hide behind itself along a slider's ray
+        var withoutKing = occupancy ^ Bitboards.bit(kingSquare);
+        var targets = Bitboards.kingAttacks(kingSquare) & ~ours;
+        while (targets != 0) {
+            var to = Bitboards.firstSquare(targets);
+            targets &= targets - 1;
+            if (board.getAttackers(to, them, withoutKing) == 0) {
+                moves.add(Move.encode(kingSquare, to, (occupancy & Bitboards.bit(to)) != 0 ? Move.CAPTURE : 0));
+            }
+        }
+
+        var homeRow = us == ChessGame.TeamColor.WHITE ? 1 : 8;
+        if (!canCastle || kingSquare != Bitboards.square(homeRow, 5)) return;
+
+        var rooks = board.getPieces(us, ChessPiece.PieceType.ROOK);
+        if (history.canCastleKingSide(us) && (rooks & Bitboards.bit(Bitboards.square(homeRow, 8))) != 0
+                && (occupancy & Bitboards.between(kingSquare, Bitboards.square(homeRow, 8))) == 0
+                && !board.isSquareAttacked(kingSquare + 1, them) && !board.isSquareAttacked(kingSquare + 2, them)) {
+            moves.add(Move.encode(kingSquare, kingSquare + 2, Move.CASTLE));
+        }
+        if (history.canCastleQueenSide(us) && (rooks & Bitboards.bit(Bitboards.square(homeRow, 1))) != 0
+                && (occupancy & Bitboards.between(kingSquare, Bitboards.square(homeRow, 1))) == 0
+                && !board.isSquareAttacked(kingSquare - 1, them) && !board.isSquareAttacked(kingSquare - 2, them)) {
+            moves.add(Move.encode(kingSquare, kingSquare - 2, Move.CASTLE));
+        }
+    }
+
+    private static void addPawnMoves(ChessBoard board, ChessMoveHistory history, ChessGame.TeamColor us,
+                                     ChessGame.TeamColor them, int from, int kingSquare, long theirs,
+                                     long occupancy, long legalMask, MoveList moves) {
+        var white = us == ChessGame.TeamColor.WHITE;
+        var forward = white ? 8 : -8;
+        var startRow = white ? 2 : 7;
+
+        var one = from + forward;
+        if (one >= 0 && one < 64 && (occupancy & Bitboards.bit(one)) == 0) {
+            if ((legalMask & Bitboards.bit(one)) != 0) addPawnMove(from, one, 0, moves);
+            var two = one + forward;
+            if (Bitboards.row(from) == startRow && (occupancy & Bitboards.bit(two)) == 0
+                    && (legalMask & Bitboards.bit(two)) != 0) {
+                moves.add(Move.encode(from, two, Move.DOUBLE_PUSH));
+            }
+        }
+
+        var captures = Bitboards.pawnAttacks(us, from) & theirs & legalMask;
+        while (captures != 0) {
+            var to = Bitboards.firstSquare(captures);
+            captures &= captures - 1;
+            addPawnMove(from, to, Move.CAPTURE, moves);
+        }
+
+        var enPassantPosition = history.getEnPassantPosition();
+        if (enPassantPosition == null || enPassantPosition.row() != (white ? 6 : 3)) return;
+        var to = Bitboards.square(enPassantPosition);
+        var captured = to - forward;
+        if ((Bitboards.pawnAttacks(us, from) & Bitboards.bit(to)) == 0
+                || (board.getPieces(them, ChessPiece.PieceType.PAWN) & Bitboards.bit(captured)) == 0
+                || (occupancy & Bitboards.bit(to)) != 0) {
+            return;
+        }
+        if (kingSquare != Bitboards.NO_SQUARE) {
+            // both pawns leave the capture rank at once, so test the resulting position directly
+            var after = (occupancy ^ Bitboards.bit(from) ^ Bitboards.bit(captured)) | Bitboards.bit(to);
+            if ((board.getAttackers(kingSquare, them, after) & ~Bitboards.bit(captured)) != 0) return;
+        }
+        moves.add(Move.encode(from, to, Move.EN_PASSANT | Move.CAPTURE));
+    }
+
+    private static void addPawnMove(int from, int to, int flags, MoveList moves) {
+        var row = Bitboards.row(to);
+        if (row != 1 && row != 8) {
+            moves.add(Move.encode(from, to, flags));
+            return;
+        }
+        for (var type : PROMOTION_TYPES) {
+            moves.add(Move.encode(from, to, type, flags));
+        }
+    }
+
+    private static void addMoves(int from, long targets, long theirs, MoveList moves) {
+        while (targets != 0) {
+            var to = Bitboards.firstSquare(targets);
+            targets &= targets - 1;
+            moves.add(Move.encode(from, to, (theirs & Bitboards.bit(to)) != 0 ? Move.CAPTURE : 0));
+        }
+    }
+}
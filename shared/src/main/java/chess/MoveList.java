@@ -0,0 +1,106 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+
+/**
+ * A reusable, growable list of moves encoded with {@link Move}. Clearing it keeps the backing array, so one list can
+ * be filled again and again without allocating.
+ */
+public final class MoveList {
+
+    /**
+     * No legal chess position has more moves than this, so lists of this size never need to grow
+     */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private int[] moves;
+    private int size;
+
+    public MoveList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public MoveList(int capacity) {
+        moves = new int[capacity];
+    }
+
+    public void add(int move) {
+        if (size == moves.length) moves = Arrays.copyOf(moves, size * 2);
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Finds the generated move with the same squares and promotion as <code>move</code>
+     *
+     * @return the move including its flags, or {@link Move#NONE} if no move matches
+     */
+    public int find(int move) {
+        for (int i = 0; i < size; i++) {
+            if (Move.sameSquares(moves[i], move)) return moves[i];
+        }
+        return Move.NONE;
+    }
+
+    public int find(ChessMove move) {
+        return find(Move.fromChessMove(move));
+    }
+
+    /**
+     * Converts the moves to <code>ChessMove</code>s, for callers outside the engine
+     *
+     * @return Collection of moves
+     */
+    public Collection<ChessMove> toChessMoves() {
+        var chessMoves = new HashSet<ChessMove>(size * 2);
+        for (int i = 0; i < size; i++) {
+            chessMoves.add(Move.toChessMove(moves[i]));
+        }
+        return chessMoves;
+    }
+
+    /**
+     * Converts the moves starting on one square to <code>ChessMove</code>s
+     *
+     * @param from the start square, see {@link Bitboards}
+     * @return Collection of moves
+     */
+    public Collection<ChessMove> toChessMoves(int from) {
+        var chessMoves = new HashSet<ChessMove>();
+        for (int i = 0; i < size; i++) {
+            if (Move.from(moves[i]) == from) chessMoves.add(Move.toChessMove(moves[i]));
+        }
+        return chessMoves;
+    }
+
+    @Override
+    public String toString() {
+        var strings = new ArrayList<String>(size);
+        for (int i = 0; i < size; i++) {
+            strings.add(Move.toString(moves[i]));
+        }
+        return strings.toString();
+    }
+}
@@ -0,0 +1,159 @@
+package chess;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A read-only opening book: the moves known to be good in positions near the start of a game, with a weight for
+ * how often each should be played.
+ * <p>
+ * The file is a sorted array of 16-byte big-endian entries laid out like a Polyglot book: the position's
+ * {@link Zobrist} key (8 bytes), the move (2 bytes, the squares and promotion bits of {@link Move}), the weight
+ * (2 bytes, unsigned) and 4 reserved bytes. Entries are sorted by key as an unsigned number, so all the moves for
+ * a position are next to each other. Since the keys are this engine's own rather than Polyglot's, Polyglot books
+ * cannot be read directly. Write books with {@link OpeningBookWriter}.
+ * <p>
+ * The file is memory mapped rather than read, so opening a book costs the same however large it is, and a lookup
+ * is a binary search that only touches the pages it reads. Lookups do not allocate beyond their result and are safe
+ * from any number of threads.
+ */
+public final class OpeningBook {
+
+    public static final int ENTRY_BYTES = 16;
+
+    /**
+     * A mapping can be at most 2 GB, so larger books are mapped in segments of this many entries (1 GB)
+     */
+    private static final int SEGMENT_SHIFT = 26;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+    /**
+     * A book move
+     *
+     * @param move   the move, checked to be legal in the position it was looked up for
+     * @param weight how much more often to play it than the position's other book moves
+     */
+    public record Entry(ChessMove move, int weight) {
+    }
+
+    private final MappedByteBuffer[] segments;
+    private final long size;
+
+    private OpeningBook(MappedByteBuffer[] segments, long size) {
+        this.segments = segments;
+        this.size = size;
+    }
+
+    /**
+     * Maps a book file into memory
+     *
+     * @throws IOException if the file cannot be read or is not a whole number of entries
+     */
+    public static OpeningBook open(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var length = channel.size();
+            if (length % ENTRY_BYTES != 0) {
+                throw new IOException("Not an opening book, the length is not a multiple of " + ENTRY_BYTES + ": "
+                                              + path);
+            }
+            var size = length / ENTRY_BYTES;
+            var segments = new MappedByteBuffer[(int) ((size + SEGMENT_MASK) >>> SEGMENT_SHIFT)];
+            for (int i = 0; i < segments.length; i++) {
+                var start = ((long) i << SEGMENT_SHIFT) * ENTRY_BYTES;
+                var segmentLength = Math.min(length - start, (SEGMENT_MASK + 1) * ENTRY_BYTES);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, segmentLength);
+            }
+            // the mapping stays valid after the channel is closed
+            return new OpeningBook(segments, size);
+        }
+    }
+
+    /**
+     * @return the number of entries in the book
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Looks up the book moves for a game's current position
+     *
+     * @return the legal book moves, in the order they are stored; empty if the position is not in the book
+     */
+    public List<Entry> entries(ChessGame game) {
+        var key = game.getZobristKey();
+        var entries = new ArrayList<Entry>();
+        var legalMoves = game.legalMoves(game.getTeamTurn());
+        for (long i = firstIndex(key); i < size && key(i) == key; i++) {
+            // a move that is not legal here means another position with the same key
+            var move = legalMoves.find(move(i));
+            if (move != Move.NONE) {
+                entries.add(new Entry(Move.toChessMove(move), weight(i)));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Chooses a book move at random, each in proportion to its weight
+     *
+     * @return the move, or null if the position is not in the book or all its moves have no weight
+     */
+    public ChessMove pick(ChessGame game, Random random) {
+        var entries = entries(game);
+        var total = 0;
+        for (var entry : entries) {
+            total += entry.weight();
+        }
+        if (total == 0) return null;
+
+        var choice = random.nextInt(total);
+        for (var entry : entries) {
+            choice -= entry.weight();
+            if (choice < 0) return entry.move();
+        }
+        throw new AssertionError("weights changed while picking");
+    }
+
+    /**
+     * @return the index of the first entry whose key is not less than <code>key</code>
+     */
+    private long firstIndex(long key) {
+        long low = 0, high = size;
+        while (low < high) {
+            var middle = (low + high) >>> 1;
+            if (Long.compareUnsigned(key(middle), key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private long key(long index) {
+        return segment(index).getLong(offset(index));
+    }
+
+    private int move(long index) {
+        return segment(index).getShort(offset(index) + 8) & 0x7FFF;
+    }
+
+    private int weight(long index) {
+        return segment(index).getShort(offset(index) + 10) & 0xFFFF;
+    }
+
+    private MappedByteBuffer segment(long index) {
+        return segments[(int) (index >>> SEGMENT_SHIFT)];
+    }
+
+    private static int offset(long index) {
+        return (int) (index & SEGMENT_MASK) * ENTRY_BYTES;
+    }
+}
@@ -0,0 +1,82 @@
+package chess;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Collects book moves in memory and writes them as an {@link OpeningBook} file.
+ * <p>
+ * Adding the same move in the same position again adds to its weight, so a book can be built by adding the opening
+ * moves of many games and letting the popular lines collect the most weight.
+ */
+public final class OpeningBookWriter {
+
+    private static final int MAX_WEIGHT = 0xFFFF;
+
+    private final Map<Long, Map<Integer, Integer>> positions = new HashMap<>();
+
+    /**
+     * Adds weight to a move in a game's current position
+     *
+     * @throws InvalidMoveException if the move is not legal in the position
+     */
+    public void add(ChessGame game, ChessMove move, int weight) throws InvalidMoveException {
+        if (weight < 0) throw new IllegalArgumentException("Weight must not be negative: " + weight);
+        if (game.legalMoves(game.getTeamTurn()).find(move) == Move.NONE) {
+            throw new InvalidMoveException("Move is not legal in the position: " + move);
+        }
+        var moves = positions.computeIfAbsent(game.getZobristKey(), key -> new HashMap<>());
+        moves.merge(Move.fromChessMove(move), weight, (a, b) -> Math.min(a + b, MAX_WEIGHT));
+    }
+
+    /**
+     * Adds the first moves of a game from the starting position, each with a weight of one
+     *
+     * @param plies how many moves from the start to add
+     * @throws InvalidMoveException if a move is not legal
+     */
+    public void addGame(Iterable<ChessMove> moves, int plies) throws InvalidMoveException {
+        var game = new ChessGame();
+        var added = 0;
+        for (var move : moves) {
+            if (added++ == plies) break;
+            add(game, move, 1);
+            game.makeMove(move);
+        }
+    }
+
+    /**
+     * @return the number of entries the book will have
+     */
+    public int size() {
+        var size = 0;
+        for (var moves : positions.values()) {
+            size += moves.size();
+        }
+        return size;
+    }
+
+    /**
+     * Writes the book, sorted by key and then by weight, heaviest first
+     */
+    public void write(Path path) throws IOException {
+        var keys = positions.keySet().stream().sorted(Long::compareUnsigned).toList();
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            for (var key : keys) {
+                var moves = positions.get(key).entrySet().stream()
+                        .sorted(Map.Entry.<Integer, Integer>comparingByValue().reversed()).toList();
+                for (var move : moves) {
+                    out.writeLong(key);
+                    out.writeShort(move.getKey());
+                    out.writeShort(move.getValue());
+                    out.writeInt(0);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Searches one position on several threads at once ("Lazy SMP"). Every thread runs its own {@link Search} of the
+ * same root, and they share nothing but a {@link TranspositionTable}. The threads do not divide the work between
+ * them; each picks up the results the others have stored and so gets further in the same time, and the extra
+ * threads start their iterations at staggered depths so they do not all search in step.
+ * <p>
+ * The move comes from the first thread, which uses the limits as given. The helper threads keep searching until
+ * that thread finishes, and their nodes are added to the result. Node limits therefore count the first thread's
+ * nodes only.
+ * <p>
+ * Like {@link Search}, a position in its {@link OpeningBook}, if it has one, gets a book move without searching.
+ * <p>
+ * The helper threads are created once and reused for every search. Only one search may run at a time; close the
+ * search to stop its threads.
+ */
+public final class ParallelSearch implements AutoCloseable {
+
+    private final TranspositionTable table;
+    private final Search[] searches;
+    private final ExecutorService helpers;
+    private final AtomicBoolean stop = new AtomicBoolean();
+    private final Random random = new Random();
+    private OpeningBook openingBook;
+
+    /**
+     * Creates a search with one thread per available processor
+     */
+    public ParallelSearch() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public ParallelSearch(int threads) {
+        this(threads, new TranspositionTable(Search.DEFAULT_TABLE_MEGABYTES));
+    }
+
+    /**
+     * @param threads the number of threads to search with, including the calling thread
+     * @param table   the table the threads share
+     */
+    public ParallelSearch(int threads, TranspositionTable table) {
+        if (threads < 1) throw new IllegalArgumentException("Need at least one thread: " + threads);
+        this.table = table;
+        searches = new Search[threads];
+        for (int i = 0; i < threads; i++) {
+            searches[i] = new Search(table);
+        }
+        helpers = threads == 1 ? null : Executors.newFixedThreadPool(threads - 1, runnable -> {
+            var thread = new Thread(runnable, "search-helper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Searches the current position of a game on every thread, the calling thread included
+     *
+     * @param position the game to find a move in; it is not changed
+     * @param limits   when to stop
+     * @return the first thread's result, with the nodes of every thread
+     */
+    public SearchResult search(ChessGame position, SearchLimits limits) {
+        var bookMove = openingBook == null ? null : openingBook.pick(position, random);
+        if (bookMove != null) return SearchResult.fromBook(bookMove);
+        stop.set(false);
+        table.newSearch();
+        var helperLimits = new SearchLimits(SearchLimits.MAX_DEPTH, limits.timeMillis(), Long.MAX_VALUE);
+        var futures = new ArrayList<Future<SearchResult>>(searches.length - 1);
+        for (int i = 1; i < searches.length; i++) {
+            var helper = i;
+            futures.add(helpers.submit(() -> searches[helper].search(position, helperLimits, helper, stop)));
+        }
+
+        SearchResult result;
+        try {
+            result = searches[0].search(position, limits, 0, stop);
+        } finally {
+            stop.set(true);
+        }
+
+        var nodes = result.nodes();
+        for (var future : futures) {
+            try {
+                nodes += future.get().nodes();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Search thread failed", e.getCause());
+            }
+        }
+        return new SearchResult(result.bestMove(), result.score(), result.depth(), nodes, result.millis());
+    }
+
+    /**
+     * Asks a running search, on another thread, to return as soon as possible
+     */
+    public void stop() {
+        stop.set(true);
+    }
+
+    public int getThreads() {
+        return searches.length;
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    /**
+     * @param openingBook the book to play from before searching, or null to always search
+     */
+    public void setOpeningBook(OpeningBook openingBook) {
+        this.openingBook = openingBook;
+    }
+
+    /**
+     * @param tablebase the endgame tables every thread scores positions from, or null to search every position
+     */
+    public void setTablebase(Tablebase tablebase) {
+        for (var search : searches) {
+            search.setTablebase(tablebase);
+        }
+    }
+
+    @Override
+    public void close() {
+        stop.set(true);
+        if (helpers != null) helpers.shutdownNow();
+    }
+}
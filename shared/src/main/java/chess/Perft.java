@@ -0,0 +1,168 @@
+package chess;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth ("perft"). The counts for the reference positions
+ * below are well established, so any difference points to a move generation bug, and the time taken is a direct
+ * measure of move generation speed.
+ * <p>
+ * Run it from the command line with
+ * <pre>
+ *     java -cp shared.jar chess.Perft                          # every reference position
+ *     java -cp shared.jar chess.Perft 5 [fen]                  # one position, depth 1 to 5
+ *     java -cp shared.jar chess.Perft divide 5 [fen]           # node count below each root move
+ * </pre>
+ */
+public final class Perft {
+
+    /**
+     * Standard perft positions with their published node counts, starting at depth 1
+     */
+    public enum Reference {
+        START(Fen.START_POSITION, 20, 400, 8902, 197281, 4865609),
+        KIWIPETE("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                 48, 2039, 97862, 4085603),
+        POSITION_3("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", 14, 191, 2812, 43238, 674624),
+        POSITION_4("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1", 6, 264, 9467, 422333),
+        POSITION_5("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8", 44, 1486, 62379, 2103487),
+        POSITION_6("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+                   46, 2079, 89890, 3894594);
+
+        private final String fen;
+        private final long[] nodes;
+
+        Reference(String fen, long... nodes) {
+            this.fen = fen;
+            this.nodes = nodes;
+        }
+
+        public String getFen() {
+            return fen;
+        }
+
+        public int maxDepth() {
+            return nodes.length;
+        }
+
+        /**
+         * @return the number of leaf nodes at <code>depth</code>
+         */
+        public long nodes(int depth) {
+            return nodes[depth - 1];
+        }
+
+        public ChessGame game() {
+            return Fen.parse(fen);
+        }
+    }
+
+    private Perft() {
+    }
+
+    /**
+     * Walks the tree by making and unmaking moves on <code>game</code>, which is back in its starting position when
+     * this returns
+     *
+     * @return the number of leaf nodes <code>depth</code> moves below the game's current position
+     */
+    public static long perft(ChessGame game, int depth) {
+        return perft(game, depth, moveLists(depth));
+    }
+
+    /**
+     * Splits a perft count by root move, which narrows a wrong count down to the move that causes it
+     *
+     * @return the node count below each legal root move, keyed by the move in coordinate notation
+     */
+    public static Map<String, Long> divide(ChessGame game, int depth) {
+        if (depth < 1) throw new IllegalArgumentException("Depth must be at least 1: " + depth);
+        var lists = moveLists(depth);
+        var moves = lists[depth];
+        MoveGenerator.generate(game.getBoard(), game.getMoveHistory(), game.getTeamTurn(), moves);
+
+        var counts = new LinkedHashMap<String, Long>();
+        for (int i = 0; i < moves.size(); i++) {
+            game.playMove(moves.get(i));
+            counts.put(Move.toString(moves.get(i)), perft(game, depth - 1, lists));
+            game.undoMove();
+        }
+        return counts;
+    }
+
+    private static long perft(ChessGame game, int depth, MoveList[] lists) {
+        if (depth == 0) return 1;
+        var moves = lists[depth];
+        moves.clear();
+        MoveGenerator.generate(game.getBoard(), game.getMoveHistory(), game.getTeamTurn(), moves);
+        // the moves are legal, so the last ply only needs counting
+        if (depth == 1) return moves.size();
+
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            game.playMove(moves.get(i));
+            nodes += perft(game, depth - 1, lists);
+            game.undoMove();
+        }
+        return nodes;
+    }
+
+    /**
+     * One list per ply, so the recursion reuses them instead of allocating
+     */
+    private static MoveList[] moveLists(int depth) {
+        var lists = new MoveList[depth + 1];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = new MoveList();
+        }
+        return lists;
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            var failed = false;
+            for (var reference : Reference.values()) {
+                for (int depth = 1; depth <= reference.maxDepth(); depth++) {
+                    var nodes = report(reference.name(), reference.game(), depth);
+                    if (nodes != reference.nodes(depth)) {
+                        System.out.printf("  expected %d%n", reference.nodes(depth));
+                        failed = true;
+                    }
+                }
+            }
+            if (failed) System.exit(1);
+            return;
+        }
+
+        var divide = args[0].equals("divide");
+        var first = divide ? 1 : 0;
+        var depth = Integer.parseInt(args[first]);
+        var fen = args.length > first + 1 ? String.join(" ", Arrays.copyOfRange(args, first + 1, args.length))
+                : Fen.START_POSITION;
+        var game = Fen.parse(fen);
+
+        if (divide) {
+            long total = 0;
+            for (var entry : divide(game, depth).entrySet()) {
+                System.out.println(entry.getKey() + ": " + entry.getValue());
+                total += entry.getValue();
+            }
+            System.out.println("\nNodes searched: " + total);
+            return;
+        }
+        for (int d = 1; d <= depth; d++) {
+            report("perft", game, d);
+        }
+    }
+
+    private static long report(String name, ChessGame game, int depth) {
+        var start = System.nanoTime();
+        var nodes = perft(game, depth);
+        var nanos = Math.max(System.nanoTime() - start, 1);
+        System.out.printf("%-10s depth %d %12d nodes %8.1f ms %12.0f nodes/s%n", name, depth, nodes, nanos / 1e6,
+                          nodes * 1e9 / nanos);
+        return nodes;
+    }
+}
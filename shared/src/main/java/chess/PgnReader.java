@@ -0,0 +1,216 @@
+package chess;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads games one at a time from PGN text, so a file of any size can be read without holding more than one game.
+ * <p>
+ * Moves are read in standard algebraic notation (<code>Nf3</code>, <code>exd5</code>, <code>O-O</code>,
+ * <code>e8=Q+</code>) and checked against the legal moves of the position they are played in. Comments, variations,
+ * numeric annotations and move numbers are skipped. A game starts from its <code>FEN</code> tag if it has one.
+ */
+public final class PgnReader {
+
+    /**
+     * One game from a PGN file
+     *
+     * @param tags   the tag pairs, in the order they were written
+     * @param start  the position before the first move
+     * @param moves  the moves played
+     * @param result the result token, like <code>1-0</code>, or <code>*</code> if there was none
+     */
+    public record PgnGame(Map<String, String> tags, ChessGame start, List<ChessMove> moves, String result) {
+    }
+
+    private final BufferedReader reader;
+    private int lineNumber = 0;
+
+    public PgnReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+    }
+
+    /**
+     * @return the next game, or null at the end of the input
+     * @throws IOException if the input cannot be read or a game cannot be parsed
+     */
+    public PgnGame next() throws IOException {
+        var tags = new LinkedHashMap<String, String>();
+        var movetext = new StringBuilder();
+        String line;
+        var firstLine = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.strip();
+            if (line.isEmpty()) {
+                if (!movetext.isEmpty()) break;
+                continue;
+            }
+            if (firstLine == 0) firstLine = lineNumber;
+            if (line.startsWith("[") && movetext.isEmpty()) {
+                parseTag(line, tags);
+            } else if (!line.startsWith("%")) {
+                movetext.append(line).append('\n');
+            }
+        }
+        if (tags.isEmpty() && movetext.isEmpty()) return null;
+
+        try {
+            return parseGame(tags, movetext);
+        } catch (InvalidMoveException | IllegalArgumentException e) {
+            throw new IOException("Bad game starting on line " + firstLine + ": " + e.getMessage(), e);
+        }
+    }
+
+    private void parseTag(String line, Map<String, String> tags) throws IOException {
+        var space = line.indexOf(' ');
+        var open = line.indexOf('"');
+        var close = line.lastIndexOf('"');
+        if (space < 0 || open < 0 || close <= open || !line.endsWith("]")) {
+            throw new IOException("Bad tag on line " + lineNumber + ": " + line);
+        }
+        tags.put(line.substring(1, space), line.substring(open + 1, close).replace("\\\"", "\""));
+    }
+
+    private static PgnGame parseGame(Map<String, String> tags, CharSequence movetext) throws InvalidMoveException {
+        var start = tags.containsKey("FEN") ? Fen.parse(tags.get("FEN")) : new ChessGame();
+        var game = new ChessGame(start);
+        var moves = new ArrayList<ChessMove>();
+        var result = "*";
+
+        var variationDepth = 0;
+        for (int i = 0; i < movetext.length(); ) {
+            var c = movetext.charAt(i);
+            if (c == '{') {
+                i = skipPast(movetext, i, '}');
+            } else if (c == ';') {
+                i = skipPast(movetext, i, '\n');
+            } else if (c == '(') {
+                variationDepth++;
+                i++;
+            } else if (c == ')') {
+                variationDepth--;
+                i++;
+            } else if (Character.isWhitespace(c)) {
+                i++;
+            } else {
+                var end = i;
+                while (end < movetext.length() && !isDelimiter(movetext.charAt(end))) end++;
+                var token = movetext.subSequence(i, end).toString();
+                i = end;
+                if (variationDepth > 0 || token.startsWith("$")) continue;
+                if (isResult(token)) {
+                    result = token;
+                    continue;
+                }
+                // move numbers, like "12." or "12...", may be written up against the move
+                var san = token.replaceFirst("^\\d+\\.+", "");
+                if (san.isEmpty()) continue;
+
+                var move = parseSan(game, san);
+                moves.add(move);
+                game.makeMove(move);
+            }
+        }
+        return new PgnGame(tags, start, moves, result);
+    }
+
+    /**
+     * Finds the legal move a move in standard algebraic notation stands for
+     *
+     * @throws InvalidMoveException if no legal move, or more than one, matches
+     */
+    public static ChessMove parseSan(ChessGame game, String san) throws InvalidMoveException {
+        var text = san.replaceAll("[+#!?]+$", "");
+        var turn = game.getTeamTurn();
+        var legalMoves = game.legalMoves(turn);
+
+        if (text.equals("O-O") || text.equals("0-0") || text.equals("O-O-O") || text.equals("0-0-0")) {
+            var from = game.getBoard().getKingSquare(turn);
+            var to = from + (text.length() == 3 ? 2 : -2);
+            var move = legalMoves.find(Move.encode(from, to, 0));
+            if (move == Move.NONE || !Move.isCastle(move)) throw new InvalidMoveException("Cannot castle: " + san);
+            return Move.toChessMove(move);
+        }
+
+        ChessPiece.PieceType promotion = null;
+        var equals = text.indexOf('=');
+        if (equals >= 0) {
+            promotion = pieceType(text.charAt(equals + 1), san);
+            text = text.substring(0, equals);
+        } else if (text.length() > 2 && "QRBN".indexOf(text.charAt(text.length() - 1)) >= 0
+                && Character.isDigit(text.charAt(text.length() - 2))) {
+            promotion = pieceType(text.charAt(text.length() - 1), san);
+            text = text.substring(0, text.length() - 1);
+        }
+
+        var type = ChessPiece.PieceType.PAWN;
+        if (!text.isEmpty() && Character.isUpperCase(text.charAt(0))) {
+            type = pieceType(text.charAt(0), san);
+            text = text.substring(1);
+        }
+        text = text.replace("x", "");
+        if (text.length() < 2) throw new InvalidMoveException("Not a move: " + san);
+        var to = square(text.substring(text.length() - 2), san);
+        var disambiguation = text.substring(0, text.length() - 2);
+
+        var found = Move.NONE;
+        for (int i = 0; i < legalMoves.size(); i++) {
+            var move = legalMoves.get(i);
+            if (Move.to(move) != to || Move.promotion(move) != promotion) continue;
+            var from = Move.from(move);
+            if (game.getBoard().getPiece(from).getPieceType() != type) continue;
+            if (!matches(disambiguation, from)) continue;
+            if (found != Move.NONE) throw new InvalidMoveException("Ambiguous move: " + san);
+            found = move;
+        }
+        if (found == Move.NONE) throw new InvalidMoveException("Illegal move: " + san);
+        return Move.toChessMove(found);
+    }
+
+    private static boolean matches(String disambiguation, int square) {
+        for (int i = 0; i < disambiguation.length(); i++) {
+            var c = disambiguation.charAt(i);
+            if (c >= 'a' && c <= 'h' && Bitboards.col(square) != c - 'a' + 1) return false;
+            if (c >= '1' && c <= '8' && Bitboards.row(square) != c - '0') return false;
+        }
+        return true;
+    }
+
+    private static int square(String name, String san) throws InvalidMoveException {
+        var file = name.charAt(0);
+        var rank = name.charAt(1);
+        if (file < 'a' || file > 'h' || rank < '1' || rank > '8') throw new InvalidMoveException("Not a move: " + san);
+        return Bitboards.square(rank - '0', file - 'a' + 1);
+    }
+
+    private static ChessPiece.PieceType pieceType(char letter, String san) throws InvalidMoveException {
+        return switch (letter) {
+            case 'K' -> ChessPiece.PieceType.KING;
+            case 'Q' -> ChessPiece.PieceType.QUEEN;
+            case 'R' -> ChessPiece.PieceType.ROOK;
+            case 'B' -> ChessPiece.PieceType.BISHOP;
+            case 'N' -> ChessPiece.PieceType.KNIGHT;
+            default -> throw new InvalidMoveException("Not a move: " + san);
+        };
+    }
+
+    private static boolean isResult(String token) {
+        return token.equals("1-0") || token.equals("0-1") || token.equals("1/2-1/2") || token.equals("*");
+    }
+
+    private static boolean isDelimiter(char c) {
+        return Character.isWhitespace(c) || c == '{' || c == '(' || c == ')' || c == ';';
+    }
+
+    private static int skipPast(CharSequence text, int from, char end) {
+        var i = from;
+        while (i < text.length() && text.charAt(i) != end) i++;
+        return i + 1;
+    }
+}
@@ -0,0 +1,430 @@
+package chess;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Chooses a move for the side to move by iterative deepening alpha-beta search.
+ * <p>
+ * Each iteration searches one ply deeper than the last with a principal variation search, then resolves captures
+ * in a quiescence search so positions are never scored in the middle of an exchange. Results go into a
+ * {@link TranspositionTable}, and the best move found for a position is tried first when it comes up again,
+ * followed by captures in most valuable victim / least valuable attacker order, then quiet moves that caused cutoffs
+ * at the same ply (killers) and quiet moves that caused cutoffs anywhere (history).
+ * <p>
+ * The search works on its own copy of the game, making and unmaking moves on it, so the game passed in is never
+ * changed. If it has an {@link OpeningBook}, a position in the book gets a book move without searching at all.
+ * With a {@link Tablebase}, positions it covers are scored exactly instead of searched, and a root it covers is
+ * only searched one ply deep. A <code>Search</code> keeps its table and ordering data between calls and is not
+ * thread safe; use one per thread, or {@link ParallelSearch} to search one position on several threads.
+ */
+public final class Search {
+
+    public static final int MATE = 30000;
+    public static final int MAX_PLY = 128;
+
+    public static final int DEFAULT_TABLE_MEGABYTES = 16;
+
+    private static final int INFINITY = 32000;
+    private static final int DRAW = 0;
+
+    /**
+     * The clock is read once every this many nodes plus one, since reading it is slow next to visiting a node
+     */
+    private static final int CLOCK_INTERVAL = 1023;
+
+    private static final int TABLE_MOVE_SCORE = 1 << 30;
+    private static final int CAPTURE_SCORE = 1 << 28;
+    private static final int KILLER_SCORE = 1 << 27;
+    private static final int HISTORY_LIMIT = 1 << 26;
+
+    /**
+     * Attacker order for MVV-LVA, indexed by {@link ChessPiece.PieceType} ordinal: cheaper attackers sort first
+     */
+    private static final int[] ATTACKER_RANK = {6, 5, 3, 2, 4, 1};
+
+    private final TranspositionTable table;
+    private final Random random = new Random();
+    private OpeningBook openingBook;
+    private Tablebase tablebase;
+    private final MoveList[] moveLists = new MoveList[MAX_PLY + 1];
+    private final int[][] orderScores = new int[MAX_PLY + 1][MoveList.DEFAULT_CAPACITY];
+    private final int[][] killers = new int[MAX_PLY + 1][2];
+    private final int[][] history = new int[2][64 * 64];
+
+    private ChessGame game;
+    private ChessBoard board;
+    private ChessMoveHistory moveHistory;
+
+    private long nodes;
+    private long maxNodes;
+    private long deadline;
+    private boolean canAbort;
+    private boolean aborted;
+    private volatile boolean stopRequested;
+    private AtomicBoolean sharedStop;
+    private int rootBestMove;
+
+    public Search() {
+        this(new TranspositionTable(DEFAULT_TABLE_MEGABYTES));
+    }
+
+    public Search(TranspositionTable table) {
+        this.table = table;
+        for (int i = 0; i < moveLists.length; i++) {
+            moveLists[i] = new MoveList();
+        }
+    }
+
+    /**
+     * Searches the current position of a game
+     *
+     * @param position the game to find a move in; it is not changed
+     * @param limits   when to stop
+     * @return the best move found in the deepest completed iteration
+     */
+    public SearchResult search(ChessGame position, SearchLimits limits) {
+        var bookMove = openingBook == null ? null : openingBook.pick(position, random);
+        if (bookMove != null) return SearchResult.fromBook(bookMove);
+        table.newSearch();
+        return search(position, limits, 0, null);
+    }
+
+    /**
+     * Searches as one of the threads of a {@link ParallelSearch}. Helper threads start their iterations at
+     * staggered depths, so they fill the shared table with results the other threads can use instead of all
+     * repeating the same search.
+     *
+     * @param helper     0 for the thread whose result is used, or the number of a helper thread
+     * @param sharedStop set by the parallel search to stop every thread at once
+     */
+    SearchResult search(ChessGame position, SearchLimits limits, int helper, AtomicBoolean sharedStop) {
+        var start = System.nanoTime();
+        this.sharedStop = sharedStop;
+        game = new ChessGame(position);
+        board = game.getBoard();
+        moveHistory = game.getMoveHistory();
+        nodes = 0;
+        maxNodes = limits.maxNodes();
+        deadline = limits.timeMillis() >= Long.MAX_VALUE / 1_000_000 ? Long.MAX_VALUE
+                : start + limits.timeMillis() * 1_000_000;
+        aborted = false;
+        stopRequested = false;
+        prepareOrdering();
+
+        var rootMoves = moveLists[0];
+        rootMoves.clear();
+        MoveGenerator.generate(board, moveHistory, game.getTeamTurn(), rootMoves);
+        if (rootMoves.isEmpty()) {
+            var score = game.isInCheck(game.getTeamTurn()) ? -MATE : DRAW;
+            return new SearchResult(null, score, 0, 0, millisSince(start));
+        }
+
+        var maxDepth = limits.maxDepth();
+        // every move leads to a position the tablebase scores, so one ply finds the best
+        if (tablebase != null && tablebase.probe(board, moveHistory, game.getTeamTurn()) != Tablebase.NOT_FOUND) {
+            maxDepth = 1;
+        }
+
+        var bestMove = rootMoves.get(0);
+        var bestScore = 0;
+        var completedDepth = 0;
+        for (int depth = 1 + helper % 2; depth <= maxDepth; depth++) {
+            // the first iteration always finishes, so there is a searched move to return
+            canAbort = depth > 1;
+            rootBestMove = Move.NONE;
+            var score = alphaBeta(depth, 0, -INFINITY, INFINITY);
+            if (aborted) break;
+
+            bestMove = rootBestMove;
+            bestScore = score;
+            completedDepth = depth;
+            // a mate this close cannot be improved on by searching deeper
+            if (Math.abs(score) >= MATE - depth) break;
+            if (rootMoves.size() == 1) break;
+            // the next iteration takes several times as long as this one, so it would only be thrown away
+            if (helper == 0 && deadline != Long.MAX_VALUE && System.nanoTime() - start > (deadline - start) / 2) {
+                break;
+            }
+        }
+        return new SearchResult(Move.toChessMove(bestMove), bestScore, completedDepth, nodes, millisSince(start));
+    }
+
+    /**
+     * Asks a running search, on another thread, to return as soon as possible with the result of its last completed
+     * iteration
+     */
+    public void stop() {
+        stopRequested = true;
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    /**
+     * @param openingBook the book to play from before searching, or null to always search
+     */
+    public void setOpeningBook(OpeningBook openingBook) {
+        this.openingBook = openingBook;
+    }
+
+    /**
+     * @param tablebase the endgame tables to score positions from, or null to search every position
+     */
+    public void setTablebase(Tablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    private int alphaBeta(int depth, int ply, int alpha, int beta) {
+        var key = game.getZobristKey();
+        if (ply > 0) {
+            if (moveHistory.getHalfmoveClock() >= 100 || moveHistory.isRepetition(key)) return DRAW;
+            // no line from here can beat a mate that was already found closer to the root
+            alpha = Math.max(alpha, -MATE + ply);
+            beta = Math.min(beta, MATE - ply - 1);
+            if (alpha >= beta) return alpha;
+
+            if (tablebase != null && Tablebase.fewEnoughPieces(board)) {
+                var value = tablebase.probe(board, moveHistory, game.getTeamTurn());
+                if (value != Tablebase.NOT_FOUND) return tablebaseScore(value, ply);
+            }
+        }
+
+        var turn = game.getTeamTurn();
+        var inCheck = game.isInCheck(turn);
+        if (inCheck && ply < MAX_PLY / 2) depth++;
+        if (depth <= 0 || ply >= MAX_PLY) return quiesce(ply, alpha, beta);
+        if (visit()) return 0;
+
+        var entry = table.probe(key);
+        var tableMove = TranspositionTable.move(entry);
+        if (ply > 0 && entry != 0 && TranspositionTable.depth(entry) >= depth) {
+            var score = fromTable(TranspositionTable.score(entry), ply);
+            switch (TranspositionTable.bound(entry)) {
+                case TranspositionTable.EXACT -> {
+                    return score;
+                }
+                case TranspositionTable.LOWER -> {
+                    if (score >= beta) return score;
+                }
+                case TranspositionTable.UPPER -> {
+                    if (score <= alpha) return score;
+                }
+                default -> {
+                }
+            }
+        }
+
+        var moves = moveLists[ply];
+        if (ply > 0) {
+            moves.clear();
+            MoveGenerator.generate(board, moveHistory, turn, moves);
+        }
+        if (moves.isEmpty()) return inCheck ? -MATE + ply : DRAW;
+        scoreMoves(ply, tableMove, turn);
+
+        var originalAlpha = alpha;
+        var bestScore = -INFINITY;
+        var bestMove = Move.NONE;
+        for (int i = 0; i < moves.size(); i++) {
+            var move = pickNext(ply, i);
+            game.playMove(move);
+            int score;
+            if (i == 0) {
+                score = -alphaBeta(depth - 1, ply + 1, -beta, -alpha);
+            } else {
+                // prove the move is no better than the first with a null window, and search it fully only if not
+                score = -alphaBeta(depth - 1, ply + 1, -alpha - 1, -alpha);
+                if (score > alpha && score < beta) score = -alphaBeta(depth - 1, ply + 1, -beta, -alpha);
+            }
+            game.undoMove();
+            if (aborted) return 0;
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if (ply == 0) rootBestMove = move;
+                if (score > alpha) alpha = score;
+                if (score >= beta) {
+                    if (!Move.isCapture(move) && !Move.isPromotion(move)) rememberCutoff(move, ply, depth, turn);
+                    break;
+                }
+            }
+        }
+
+        var bound = bestScore >= beta ? TranspositionTable.LOWER
+                : bestScore > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+        table.store(key, bestMove, toTable(bestScore, ply), depth, bound);
+        return bestScore;
+    }
+
+    /**
+     * Searches only captures and promotions, or every move when in check, until the position is quiet. The side to
+     * move may also "stand pat" on the static evaluation instead of making a bad capture.
+     */
+    private int quiesce(int ply, int alpha, int beta) {
+        if (visit()) return 0;
+        var turn = game.getTeamTurn();
+        if (ply >= MAX_PLY) return Evaluation.evaluate(board, turn);
+
+        var inCheck = game.isInCheck(turn);
+        var moves = moveLists[ply];
+        moves.clear();
+        MoveGenerator.generate(board, moveHistory, turn, moves);
+        if (moves.isEmpty()) return inCheck ? -MATE + ply : DRAW;
+
+        var bestScore = -INFINITY;
+        if (!inCheck) {
+            bestScore = Evaluation.evaluate(board, turn);
+            if (bestScore >= beta) return bestScore;
+            if (bestScore > alpha) alpha = bestScore;
+        }
+
+        scoreMoves(ply, Move.NONE, turn);
+        for (int i = 0; i < moves.size(); i++) {
+            var move = pickNext(ply, i);
+            // captures sort first, so the rest are quiet
+            if (!inCheck && orderScores[ply][i] < CAPTURE_SCORE) break;
+            game.playMove(move);
+            var score = -quiesce(ply + 1, -beta, -alpha);
+            game.undoMove();
+            if (aborted) return 0;
+
+            if (score > bestScore) {
+                bestScore = score;
+                if (score > alpha) alpha = score;
+                if (score >= beta) break;
+            }
+        }
+        return bestScore;
+    }
+
+    /**
+     * Converts a tablebase value to a score, counting a mate's distance from the root like the search does
+     */
+    private static int tablebaseScore(int value, int ply) {
+        if (EndgameTable.isWin(value)) return MATE - ply - EndgameTable.plies(value);
+        if (EndgameTable.isLoss(value)) return -MATE + ply + EndgameTable.plies(value);
+        return DRAW;
+    }
+
+    /**
+     * Counts a node and checks the limits
+     *
+     * @return true if the search has to stop
+     */
+    private boolean visit() {
+        nodes++;
+        if (!canAbort) return false;
+        if (nodes >= maxNodes) {
+            aborted = true;
+        } else if ((nodes & CLOCK_INTERVAL) == 0) {
+            if (stopRequested || (sharedStop != null && sharedStop.get()) || System.nanoTime() >= deadline) {
+                aborted = true;
+            }
+        }
+        return aborted;
+    }
+
+    private void scoreMoves(int ply, int tableMove, ChessGame.TeamColor turn) {
+        var moves = moveLists[ply];
+        var scores = orderScores[ply];
+        var colorHistory = history[turn.ordinal()];
+        for (int i = 0; i < moves.size(); i++) {
+            var move = moves.get(i);
+            int score;
+            if (move == tableMove) {
+                score = TABLE_MOVE_SCORE;
+            } else if (Move.isCapture(move)) {
+                var victim = Move.isEnPassant(move) ? ChessPiece.PieceType.PAWN
+                        : board.getPiece(Move.to(move)).getPieceType();
+                var attacker = board.getPiece(Move.from(move)).getPieceType();
+                score = CAPTURE_SCORE + Evaluation.PIECE_VALUES[victim.ordinal()] * 8
+                        - ATTACKER_RANK[attacker.ordinal()];
+            } else if (Move.promotion(move) == ChessPiece.PieceType.QUEEN) {
+                score = CAPTURE_SCORE + Evaluation.PIECE_VALUES[ChessPiece.PieceType.QUEEN.ordinal()];
+            } else if (move == killers[ply][0]) {
+                score = KILLER_SCORE;
+            } else if (move == killers[ply][1]) {
+                score = KILLER_SCORE - 1;
+            } else {
+                score = colorHistory[(Move.from(move) << 6) | Move.to(move)];
+            }
+            scores[i] = score;
+        }
+    }
+
+    /**
+     * Moves the best scoring of the moves not yet searched to <code>index</code>
+     *
+     * @return the move now at <code>index</code>
+     */
+    private int pickNext(int ply, int index) {
+        var moves = moveLists[ply];
+        var scores = orderScores[ply];
+        var best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (scores[i] > scores[best]) best = i;
+        }
+        if (best != index) {
+            var move = moves.get(best);
+            moves.set(best, moves.get(index));
+            moves.set(index, move);
+            var score = scores[best];
+            scores[best] = scores[index];
+            scores[index] = score;
+        }
+        return moves.get(index);
+    }
+
+    private void rememberCutoff(int move, int ply, int depth, ChessGame.TeamColor turn) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        var colorHistory = history[turn.ordinal()];
+        var index = (Move.from(move) << 6) | Move.to(move);
+        colorHistory[index] += depth * depth;
+        if (colorHistory[index] >= HISTORY_LIMIT) ageHistory();
+    }
+
+    /**
+     * Killers only make sense for the position they were found in, but history carries over at reduced weight
+     */
+    private void prepareOrdering() {
+        for (var plyKillers : killers) {
+            plyKillers[0] = Move.NONE;
+            plyKillers[1] = Move.NONE;
+        }
+        ageHistory();
+    }
+
+    private void ageHistory() {
+        for (var colorHistory : history) {
+            for (int i = 0; i < colorHistory.length; i++) {
+                colorHistory[i] >>= 1;
+            }
+        }
+    }
+
+    /**
+     * Mate scores are stored relative to the position rather than the root, so they stay right when the position is
+     * reached at another ply
+     */
+    private static int toTable(int score, int ply) {
+        if (score >= MATE - MAX_PLY) return score + ply;
+        if (score <= -MATE + MAX_PLY) return score - ply;
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score >= MATE - MAX_PLY) return score - ply;
+        if (score <= -MATE + MAX_PLY) return score + ply;
+        return score;
+    }
+
+    private static long millisSince(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
@@ -0,0 +1,46 @@
+package chess;
+
+/**
+ * When a {@link Search} should stop. It stops at whichever limit is reached first, and always finishes at least a
+ * one-ply search so there is a move to return.
+ *
+ * @param maxDepth   the deepest iteration to search, in plies
+ * @param timeMillis the wall-clock time to spend
+ * @param maxNodes   the number of positions to visit
+ */
+public record SearchLimits(int maxDepth, long timeMillis, long maxNodes) {
+
+    /**
+     * Deeper than any search can get within the other limits
+     */
+    public static final int MAX_DEPTH = 64;
+
+    public SearchLimits {
+        if (maxDepth < 1) throw new IllegalArgumentException("Depth must be at least 1: " + maxDepth);
+        maxDepth = Math.min(maxDepth, MAX_DEPTH);
+    }
+
+    public static SearchLimits depth(int maxDepth) {
+        return new SearchLimits(maxDepth, Long.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    public static SearchLimits time(long timeMillis) {
+        return new SearchLimits(MAX_DEPTH, timeMillis, Long.MAX_VALUE);
+    }
+
+    public static SearchLimits nodes(long maxNodes) {
+        return new SearchLimits(MAX_DEPTH, Long.MAX_VALUE, maxNodes);
+    }
+
+    public SearchLimits withDepth(int maxDepth) {
+        return new SearchLimits(maxDepth, timeMillis, maxNodes);
+    }
+
+    public SearchLimits withTime(long timeMillis) {
+        return new SearchLimits(maxDepth, timeMillis, maxNodes);
+    }
+
+    public SearchLimits withNodes(long maxNodes) {
+        return new SearchLimits(maxDepth, timeMillis, maxNodes);
+    }
+}
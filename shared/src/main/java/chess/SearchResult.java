@@ -0,0 +1,42 @@
+package chess;
+
+/**
+ * The outcome of a {@link Search}
+ *
+ * @param bestMove the move to play, or null if the side to move has no legal move
+ * @param score    the score of the position for the side to move, in centipawns, or within
+ *                 {@link Search#MAX_PLY} of {@link Search#MATE} for a forced mate
+ * @param depth    the deepest iteration that was completed, or 0 for a move from an {@link OpeningBook}
+ * @param nodes    the number of positions visited, including the quiescence search
+ * @param millis   the time taken
+ */
+public record SearchResult(ChessMove bestMove, int score, int depth, long nodes, long millis) {
+
+    /**
+     * @return the result of playing a book move without searching
+     */
+    public static SearchResult fromBook(ChessMove move) {
+        return new SearchResult(move, 0, 0, 0, 0);
+    }
+
+    /**
+     * @return true if the score is a forced mate for either side
+     */
+    public boolean isMate() {
+        return Math.abs(score) >= Search.MATE - Search.MAX_PLY;
+    }
+
+    /**
+     * @return the number of moves until mate, negative if the side to move is the one being mated, or 0 if the score
+     * is not a mate
+     */
+    public int mateIn() {
+        if (!isMate()) return 0;
+        var plies = Search.MATE - Math.abs(score);
+        return score > 0 ? (plies + 1) / 2 : -(plies + 1) / 2;
+    }
+
+    public long nodesPerSecond() {
+        return millis == 0 ? nodes * 1000 : nodes * 1000 / millis;
+    }
+}
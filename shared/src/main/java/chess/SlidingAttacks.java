@@ -0,0 +1,226 @@
+package chess;
+
+/**
+ * Precomputed attack tables for the sliding pieces, using "fancy" magic bitboards.
+ * <p>
+ * For every square the relevant blockers (the ray squares, minus the board edge) are multiplied by a magic number
+ * so that the top bits form a perfect index into that square's slice of the attack table. The tables are filled
+ * once at class-load. The magics below were found with {@link #findMagic}; searching for them at startup takes
+ * hundreds of milliseconds, so they are kept as constants and only re-searched if one of them stops being valid.
+ */
+public final class SlidingAttacks {
+
+    private static final int[][] ROOK_DIRECTIONS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final long[] ROOK_MAGICS = {
+            0x1080004008801020L, 0x0840092002C03000L, 0x1900200010400900L, 0x0880100008000480L,
+            0x4200100420080200L, 0x8100020100080400L, 0x0200040110886200L, 0x0200008040220411L,
+            0x0404800084400220L, 0x0000401000402000L, 0x0086001081220440L, 0x0408800800100280L,
+            0x000A001201040820L, 0x8848800200840080L, 0x4001000100040200L, 0x0442000102105084L,
+            0x9080010020804100L, 0x0040404000201009L, 0x0000808010002009L, 0x2200090021D00100L,
+            0x0008008008040080L, 0x0004004002010040L, 0x0011040008015042L, 0x00000A0001768104L,
+            0x0000800080204009L, 0x2010004140002001L, 0x9800200280100080L, 0x1000100080080080L,
+            0x0442000A00049020L, 0x2100040080020080L, 0x0800120400900148L, 0x0010040A00128541L,
+            0x2800804000800030L, 0x1010002000400041L, 0x4000200011004100L, 0x0610008410800800L,
+            0x0400802402800800L, 0xC100020080800400L, 0x0002000802000401L, 0x0182085882000401L,
+            0x0220204000808000L, 0x2860100040024022L, 0x0001002004110040L, 0x99101042000A0020L,
+            0x0004080004008080L, 0x0010040002008080L, 0x2012004881020004L, 0x8300842444820011L,
+            0x0088403882010200L, 0x0820400080210100L, 0x0110910040A00300L, 0x0801100280080480L,
+            0x0242009008200600L, 0x1002000489500200L, 0x0040800200010080L, 0x0091800041000080L,
+            0x0000209300488001L, 0x04C1002414824001L, 0x020020000B001041L, 0x7000100004200901L,
+            0x8002002004100802L, 0x30010002084C0007L, 0x0888221800813004L, 0x4000002840840112L
+    };
+    private static final int[] ROOK_SHIFTS = new int[64];
+    private static final int[] ROOK_OFFSETS = new int[64];
+    private static final long[] ROOK_TABLE;
+
+    private static final long[] BISHOP_MASKS = new long[64];
+    private static final long[] BISHOP_MAGICS = {
+            0xA010041108003100L, 0x006082020A002900L, 0x6810010619200000L, 0x08281A0520000408L,
+            0x0001104001000400L, 0x0018901008048400L, 0x00040A0210245280L, 0x000200210808A402L,
+            0x9140048410821200L, 0x0800091010820041L, 0x20504804832202C0L, 0x0100091401081000L,
+            0x8021011140000012L, 0x0810020804450400L, 0x208B0542109008A2L, 0x0080084A08040204L,
+            0x0040E2A80811244CL, 0x2505022008008108L, 0x0430220100420040L, 0x010A040420220040L,
+            0x1105000290400000L, 0x0093001200822120L, 0x4000A62048043004L, 0x280120048A015004L,
+            0x006090002A020814L, 0x44042000240800D0L, 0x01102800040A4400L, 0x1004080080220040L,
+            0x0001001011004024L, 0x0010044000805040L, 0x0914041200820100L, 0x0004821012821480L,
+            0x0024040500C05021L, 0x0088611002080200L, 0x0116080A00040020L, 0x4000020080080080L,
+            0x2450450140840040L, 0x0000880201484100L, 0x0222020404020092L, 0x8081110600002E00L,
+            0x2842101105000801L, 0x1100809008001025L, 0x00020202221C0400L, 0x0422014022009020L,
+            0x0210046102100C00L, 0xC004008082029102L, 0x00AA461801101200L, 0x0404080080201108L,
+            0x020542108C205002L, 0x0410544804100100L, 0x0040910841100000L, 0x0400200042021100L,
+            0x00004204850400C0L, 0x0200100410A42102L, 0x1040020801210102L, 0x0805040410420000L,
+            0x2884804130100200L, 0x800C262201242000L, 0x1058000194108800L, 0x0014221054420204L,
+            0x0104000012A02200L, 0x0200881003300100L, 0x0140400202840100L, 0x0402020801010201L
+    };
+    private static final int[] BISHOP_SHIFTS = new int[64];
+    private static final int[] BISHOP_OFFSETS = new int[64];
+    private static final long[] BISHOP_TABLE;
+
+    static {
+        var random = new SparseRandom(0x9E3779B97F4A7C15L);
+        ROOK_TABLE = initialize(ROOK_DIRECTIONS, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_OFFSETS, random);
+        BISHOP_TABLE = initialize(BISHOP_DIRECTIONS, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_OFFSETS,
+                                  random);
+    }
+
+    private SlidingAttacks() {
+    }
+
+    /**
+     * @return the squares a rook on <code>square</code> attacks, stopping at (and including) the first piece in
+     * <code>occupancy</code> along each ray
+     */
+    public static long rookAttacks(int square, long occupancy) {
+        var index = (int) (((occupancy & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square]);
+        return ROOK_TABLE[ROOK_OFFSETS[square] + index];
+    }
+
+    /**
+     * @return the squares a bishop on <code>square</code> attacks, stopping at (and including) the first piece in
+     * <code>occupancy</code> along each ray
+     */
+    public static long bishopAttacks(int square, long occupancy) {
+        var index = (int) (((occupancy & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square]);
+        return BISHOP_TABLE[BISHOP_OFFSETS[square] + index];
+    }
+
+    public static long queenAttacks(int square, long occupancy) {
+        return rookAttacks(square, occupancy) | bishopAttacks(square, occupancy);
+    }
+
+    private static long[] initialize(int[][] directions, long[] masks, long[] magics, int[] shifts, int[] offsets,
+                                     SparseRandom random) {
+        var size = 0;
+        for (int square = 0; square < 64; square++) {
+            masks[square] = relevantBlockers(square, directions);
+            var bits = Long.bitCount(masks[square]);
+            shifts[square] = 64 - bits;
+            offsets[square] = size;
+            size += 1 << bits;
+        }
+
+        var table = new long[size];
+        for (int square = 0; square < 64; square++) {
+            var mask = masks[square];
+            var count = 1 << Long.bitCount(mask);
+            var occupancies = new long[count];
+            var attacks = new long[count];
+
+            // enumerate every subset of the mask with the carry-rippler trick
+            long subset = 0;
+            for (int i = 0; i < count; i++) {
+                occupancies[i] = subset;
+                attacks[i] = walkRays(square, subset, directions);
+                subset = (subset - mask) & mask;
+            }
+
+            if (!fill(magics[square], shifts[square], occupancies, attacks, table, offsets[square])) {
+                magics[square] = findMagic(mask, shifts[square], occupancies, attacks, table, offsets[square],
+                                           random);
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Fills one square's slice of the table using the given magic
+     *
+     * @return <code>true</code> if the magic indexes every blocker subset without a harmful collision
+     */
+    private static boolean fill(long magic, int shift, long[] occupancies, long[] attacks, long[] table,
+                                int offset) {
+        var filled = new boolean[occupancies.length];
+        for (int i = 0; i < occupancies.length; i++) {
+            var index = (int) ((occupancies[i] * magic) >>> shift);
+            if (!filled[index]) {
+                filled[index] = true;
+                table[offset + index] = attacks[i];
+            } else if (table[offset + index] != attacks[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long findMagic(long mask, int shift, long[] occupancies, long[] attacks, long[] table, int offset,
+                                  SparseRandom random) {
+        var count = occupancies.length;
+        var epoch = new int[count];
+        for (int attempt = 1; ; attempt++) {
+            var magic = random.next();
+            if (Long.bitCount((mask * magic) >>> 56) < 6) continue;
+
+            var collision = false;
+            for (int i = 0; i < count && !collision; i++) {
+                var index = (int) ((occupancies[i] * magic) >>> shift);
+                if (epoch[index] < attempt) {
+                    epoch[index] = attempt;
+                    table[offset + index] = attacks[i];
+                } else if (table[offset + index] != attacks[i]) {
+                    collision = true;
+                }
+            }
+            if (!collision) return magic;
+        }
+    }
+
+    private static long relevantBlockers(int square, int[][] directions) {
+        long mask = 0;
+        var row = square >>> 3;
+        var col = square & 7;
+        for (var direction : directions) {
+            var r = row + direction[0];
+            var c = col + direction[1];
+            // a blocker on the last square of a ray never changes the attack set
+            while (r + direction[0] >= 0 && r + direction[0] < 8 && c + direction[1] >= 0 && c + direction[1] < 8) {
+                mask |= 1L << (r * 8 + c);
+                r += direction[0];
+                c += direction[1];
+            }
+        }
+        return mask;
+    }
+
+    private static long walkRays(int square, long occupancy, int[][] directions) {
+        long attacks = 0;
+        var row = square >>> 3;
+        var col = square & 7;
+        for (var direction : directions) {
+            var r = row + direction[0];
+            var c = col + direction[1];
+            while (r >= 0 && r < 8 && c >= 0 && c < 8) {
+                var bit = 1L << (r * 8 + c);
+                attacks |= bit;
+                if ((occupancy & bit) != 0) break;
+                r += direction[0];
+                c += direction[1];
+            }
+        }
+        return attacks;
+    }
+
+    /**
+     * xorshift64* generator that returns numbers with few bits set, which make good magic candidates.
+     */
+    private static final class SparseRandom {
+        private long state;
+
+        private SparseRandom(long seed) {
+            state = seed;
+        }
+
+        private long nextRaw() {
+            state ^= state >>> 12;
+            state ^= state << 25;
+            state ^= state >>> 27;
+            return state * 0x2545F4914F6CDD1DL;
+        }
+
+        private long next() {
+            return nextRaw() & nextRaw() & nextRaw();
+        }
+    }
+}
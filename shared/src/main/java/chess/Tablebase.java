@@ -0,0 +1,246 @@
+package chess;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * A directory of {@link EndgameTable}s, one file per set of pieces, with up to {@link #MAX_PIECES} pieces on the
+ * board. Tables are opened the first time a position needs them, and a missing table just means its positions are
+ * not covered. A table file that cannot be opened is logged and treated as missing.
+ * <p>
+ * Each table covers its pieces with either color, so there is one for king and queen against king ("KQvK") and none
+ * for the colors the other way round; a position with black holding the stronger pieces is looked up mirrored.
+ * <p>
+ * Lookups are safe from any number of threads.
+ */
+public final class Tablebase {
+
+    private static final Logger logger = Logger.getLogger("Tablebase");
+
+    public static final int MAX_PIECES = 5;
+    public static final String EXTENSION = ".tb";
+
+    /**
+     * Returned by the package-private lookups for a position no table covers
+     */
+    static final int NOT_FOUND = Integer.MIN_VALUE;
+
+    /**
+     * Material worth, by {@link ChessPiece.PieceType} ordinal, to decide which side's pieces a table lists first
+     */
+    private static final int[] WORTH = {0, 9, 3, 3, 5, 1};
+    /**
+     * The order pieces are listed in a table name
+     */
+    private static final ChessPiece.PieceType[] NAME_ORDER = {ChessPiece.PieceType.KING, ChessPiece.PieceType.QUEEN,
+            ChessPiece.PieceType.ROOK, ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.KNIGHT,
+            ChessPiece.PieceType.PAWN};
+
+    private static final ChessPiece.PieceType[] PROMOTIONS = {ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.ROOK,
+            ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.KNIGHT};
+
+    private static final long BARE_KINGS = materialKey(new int[]{0, 6});
+
+    /**
+     * A table and whether boards are mirrored to look up in it; the table is null if it is not available
+     */
+    private record Lookup(EndgameTable table, boolean flip) {
+    }
+
+    private final Path directory;
+    private final ConcurrentHashMap<Long, Lookup> lookups = new ConcurrentHashMap<>();
+
+    /**
+     * @param directory where the table files are, and where {@link #generate} writes them
+     */
+    public Tablebase(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Looks up the current position of a game
+     *
+     * @return the position's value, or null if no table covers it, which includes any position where castling is
+     * still allowed and any position that could not have been reached
+     */
+    public TablebaseResult probe(ChessGame game) {
+        var value = probe(game.getBoard(), game.getMoveHistory(), game.getTeamTurn());
+        if (value == NOT_FOUND) return null;
+        if (EndgameTable.isWin(value)) {
+            return new TablebaseResult(TablebaseResult.Wdl.WIN, EndgameTable.plies(value));
+        }
+        if (EndgameTable.isLoss(value)) {
+            return new TablebaseResult(TablebaseResult.Wdl.LOSS, EndgameTable.plies(value));
+        }
+        return new TablebaseResult(TablebaseResult.Wdl.DRAW, 0);
+    }
+
+    /**
+     * Generates a table and every smaller one it leads to that is not already in the directory, and writes them
+     * there
+     *
+     * @param name the pieces, like <code>KRvKP</code>, with the stronger side first
+     * @return the generated table
+     */
+    public EndgameTable generate(String name) throws IOException {
+        var key = materialKey(name);
+        if (!canonicalName(key).equals(name)) {
+            throw new IllegalArgumentException("Not a table name, list the stronger side first: " + name);
+        }
+        if (count(key, ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN) > 0
+                && count(key, ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN) > 0) {
+            throw new IllegalArgumentException("Tables with pawns on both sides are not supported: " + name);
+        }
+        for (var smaller : successorNames(name)) {
+            if (lookup(materialKey(smaller)).table() == null) generate(smaller);
+        }
+
+        Files.createDirectories(directory);
+        var table = EndgameTable.generate(name, this);
+        table.write(directory.resolve(name + EXTENSION));
+        lookups.put(key, new Lookup(table, false));
+        return table;
+    }
+
+    /**
+     * @return true if the pieces on the board are few enough for a table to cover them
+     */
+    static boolean fewEnoughPieces(ChessBoard board) {
+        return Long.bitCount(board.getOccupancy()) <= MAX_PIECES;
+    }
+
+    /**
+     * Looks up a position in the search, without allocating once its table is open
+     *
+     * @return the position's byte, see {@link EndgameTable}, or {@link #NOT_FOUND}
+     */
+    int probe(ChessBoard board, ChessMoveHistory history, ChessGame.TeamColor turn) {
+        if (history.getCastlingRights() != 0) return NOT_FOUND;
+        return probe(board, turn);
+    }
+
+    /**
+     * Looks up a position known to have no castling rights
+     */
+    int probe(ChessBoard board, ChessGame.TeamColor turn) {
+        if (!fewEnoughPieces(board)) return NOT_FOUND;
+        long key = 0;
+        for (int pieceIndex = 0; pieceIndex < Bitboards.PIECE_INDEX_COUNT; pieceIndex++) {
+            var count = Long.bitCount(board.getPieces(Bitboards.pieceIndexColor(pieceIndex),
+                                                      Bitboards.pieceIndexType(pieceIndex)));
+            key |= (long) count << (4 * pieceIndex);
+        }
+        if (key == BARE_KINGS) return 0;
+        var lookup = lookup(key);
+        if (lookup.table() == null) return NOT_FOUND;
+        var value = lookup.table().value(board, turn, lookup.flip());
+        return value == EndgameTable.ILLEGAL ? NOT_FOUND : value;
+    }
+
+    private Lookup lookup(long materialKey) {
+        return lookups.computeIfAbsent(materialKey, key -> {
+            var name = canonicalName(key);
+            var flip = materialKey(name) != key;
+            var path = directory.resolve(name + EXTENSION);
+            if (!Files.exists(path)) return new Lookup(null, flip);
+            try {
+                return new Lookup(EndgameTable.open(path), flip);
+            } catch (IOException e) {
+                logger.warning("Could not open endgame table " + path + ", treating it as missing: " +
+                                       e.getMessage());
+                return new Lookup(null, flip);
+            }
+        });
+    }
+
+    /**
+     * @return the names of the tables a capture or promotion from <code>name</code> leads to, other than bare kings
+     */
+    private static List<String> successorNames(String name) {
+        var pieces = EndgameTable.parse(name);
+        var names = new ArrayList<String>();
+        for (int slot = 0; slot < pieces.length; slot++) {
+            var type = Bitboards.pieceIndexType(pieces[slot]);
+            if (type == ChessPiece.PieceType.KING) continue;
+
+            var captured = new int[pieces.length - 1];
+            for (int i = 0, j = 0; i < pieces.length; i++) {
+                if (i != slot) captured[j++] = pieces[i];
+            }
+            var capturedKey = materialKey(captured);
+            if (capturedKey != BARE_KINGS) names.add(canonicalName(capturedKey));
+
+            if (type == ChessPiece.PieceType.PAWN) {
+                var color = Bitboards.pieceIndexColor(pieces[slot]);
+                for (var promotion : PROMOTIONS) {
+                    var promoted = pieces.clone();
+                    promoted[slot] = Bitboards.pieceIndex(color, promotion);
+                    names.add(canonicalName(materialKey(promoted)));
+                }
+            }
+        }
+        return names.stream().distinct().toList();
+    }
+
+    /**
+     * Packs the number of each kind of piece into a <code>long</code>, four bits per {@link Bitboards#pieceIndex}
+     */
+    private static long materialKey(int[] pieces) {
+        long key = 0;
+        for (var piece : pieces) {
+            key += 1L << (4 * piece);
+        }
+        return key;
+    }
+
+    private static long materialKey(String name) {
+        return materialKey(EndgameTable.parse(name));
+    }
+
+    /**
+     * @return the name of the table for some pieces, listing the side with more material first, then the side with
+     * more pieces
+     */
+    private static String canonicalName(long materialKey) {
+        var white = sideName(materialKey, ChessGame.TeamColor.WHITE);
+        var black = sideName(materialKey, ChessGame.TeamColor.BLACK);
+        var whiteWorth = worth(materialKey, ChessGame.TeamColor.WHITE);
+        var blackWorth = worth(materialKey, ChessGame.TeamColor.BLACK);
+        boolean whiteFirst;
+        if (whiteWorth != blackWorth) {
+            whiteFirst = whiteWorth > blackWorth;
+        } else if (white.length() != black.length()) {
+            whiteFirst = white.length() > black.length();
+        } else {
+            whiteFirst = white.compareTo(black) <= 0;
+        }
+        return whiteFirst ? white + "v" + black : black + "v" + white;
+    }
+
+    private static String sideName(long materialKey, ChessGame.TeamColor color) {
+        var name = new StringBuilder();
+        for (var type : NAME_ORDER) {
+            for (int i = 0; i < count(materialKey, color, type); i++) {
+                name.append(ChessPiece.of(ChessGame.TeamColor.WHITE, type));
+            }
+        }
+        return name.toString();
+    }
+
+    private static int worth(long materialKey, ChessGame.TeamColor color) {
+        var worth = 0;
+        for (var type : ChessPiece.PieceType.values()) {
+            worth += WORTH[type.ordinal()] * count(materialKey, color, type);
+        }
+        return worth;
+    }
+
+    private static int count(long materialKey, ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return (int) ((materialKey >>> (4 * Bitboards.pieceIndex(color, type))) & 0xF);
+    }
+}
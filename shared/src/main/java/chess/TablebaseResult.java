@@ -0,0 +1,31 @@
+package chess;
+
+/**
+ * The value of a position looked up in a {@link Tablebase}, assuming perfect play from both sides
+ *
+ * @param wdl   whether the team to move wins, draws or loses
+ * @param plies the number of half moves until mate, or 0 for a draw
+ */
+public record TablebaseResult(Wdl wdl, int plies) {
+
+    public enum Wdl {
+        WIN,
+        DRAW,
+        LOSS
+    }
+
+    public boolean isDraw() {
+        return wdl == Wdl.DRAW;
+    }
+
+    /**
+     * @return the number of moves until mate, negative if the team to move is the one being mated, or 0 for a draw
+     */
+    public int mateIn() {
+        return switch (wdl) {
+            case WIN -> (plies + 1) / 2;
+            case LOSS -> -(plies + 1) / 2;
+            case DRAW -> 0;
+        };
+    }
+}
@@ -0,0 +1,195 @@
+package chess;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size cache of search results keyed by Zobrist key, so a position reached again through a different move
+ * order, or again in the next iteration of a deepening search, does not have to be searched from scratch.
+ * <p>
+ * The table is one <code>long[]</code> allocated up front, so however large it is the garbage collector sees a
+ * single object with no references to trace, and nothing is allocated while searching. Each entry takes two slots:
+ * the key XORed with the data, then the data packed as the best move (19 bits, see {@link Move}), the score
+ * (16 bits), the depth (8 bits), the bound type (2 bits) and the age (6 bits). Entries are grouped in buckets of
+ * four, 64 bytes, so a probe reads one cache line.
+ * <p>
+ * Several threads may probe and store at once without locking. Two threads writing the same entry can leave the key
+ * slot of one and the data slot of the other, but then the key no longer XORs back from the data, so a probe treats
+ * it as missing rather than returning another position's result.
+ * <p>
+ * When a bucket is full, a store replaces its least valuable entry: the shallowest, counting entries left over from
+ * earlier searches as shallower the older they are. {@link #newSearch()} advances the age.
+ */
+public final class TranspositionTable {
+
+    public static final int NONE = 0;
+    public static final int EXACT = 1;
+    /**
+     * The score is at least the stored one, because the search failed high
+     */
+    public static final int LOWER = 2;
+    /**
+     * The score is at most the stored one, because no move raised alpha
+     */
+    public static final int UPPER = 3;
+
+    /**
+     * The largest table a <code>long[]</code> can hold
+     */
+    public static final int MAX_MEGABYTES = 8192;
+
+    private static final long MOVE_MASK = (1L << 19) - 1;
+    private static final int AGE_MASK = 0x3F;
+    private static final int BUCKET_SLOTS = 8;
+    private static final int BUCKET_BYTES = BUCKET_SLOTS * Long.BYTES;
+
+    private final long[] table;
+    private final long bucketMask;
+    private volatile int age;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param megabytes the memory to use, rounded down to a power of two
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1 || megabytes > MAX_MEGABYTES) {
+            throw new IllegalArgumentException("Table size must be 1 to " + MAX_MEGABYTES + " MB: " + megabytes);
+        }
+        var buckets = Long.highestOneBit((long) megabytes * 1024 * 1024 / BUCKET_BYTES);
+        table = new long[(int) (buckets * BUCKET_SLOTS)];
+        bucketMask = buckets - 1;
+    }
+
+    /**
+     * Looks up a position
+     *
+     * @return the packed entry, or 0 if the position is not stored; read it with {@link #move}, {@link #score},
+     * {@link #depth} and {@link #bound}
+     */
+    public long probe(long key) {
+        var base = bucket(key);
+        for (int slot = base; slot < base + BUCKET_SLOTS; slot += 2) {
+            var data = table[slot + 1];
+            if (data != 0 && (table[slot] ^ data) == key) {
+                hits.increment();
+                return data;
+            }
+        }
+        misses.increment();
+        return 0;
+    }
+
+    /**
+     * Stores a search result. An entry for the same position from this search is only replaced by a search that
+     * went at least as deep, or that found an exact score; otherwise the least valuable entry in the bucket is.
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        var base = bucket(key);
+        var currentAge = age;
+        var replace = base;
+        var replaceWorth = Integer.MAX_VALUE;
+        for (int slot = base; slot < base + BUCKET_SLOTS; slot += 2) {
+            var existing = table[slot + 1];
+            if (existing != 0 && (table[slot] ^ existing) == key) {
+                if (age(existing) == currentAge && depth < depth(existing) && bound != EXACT) return;
+                // keep the old best move when this search did not find one
+                if (move == Move.NONE) move = move(existing);
+                replace = slot;
+                break;
+            }
+            var worth = existing == 0 ? Integer.MIN_VALUE
+                    : depth(existing) - 8 * ((currentAge - age(existing)) & AGE_MASK);
+            if (worth < replaceWorth) {
+                replace = slot;
+                replaceWorth = worth;
+            }
+        }
+        var data = pack(move, score, depth, bound, currentAge);
+        table[replace] = key ^ data;
+        table[replace + 1] = data;
+    }
+
+    /**
+     * Marks the start of a search, so the entries stored before it are replaced first
+     */
+    public void newSearch() {
+        age = (age + 1) & AGE_MASK;
+    }
+
+    /**
+     * Empties the table and resets its counters
+     */
+    public void clear() {
+        Arrays.fill(table, 0);
+        age = 0;
+        resetCounters();
+    }
+
+    /**
+     * @return the number of entries the table holds
+     */
+    public long capacity() {
+        return table.length / 2;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public void resetCounters() {
+        hits.reset();
+        misses.reset();
+    }
+
+    /**
+     * Estimates how full the table is from its first thousand entries, counting only those stored since the last
+     * {@link #newSearch()}
+     *
+     * @return the estimate in permille, as UCI engines report it
+     */
+    public int hashfull() {
+        var sample = (int) Math.min(1000, capacity());
+        var used = 0;
+        var currentAge = age;
+        for (int i = 0; i < sample; i++) {
+            var data = table[i * 2 + 1];
+            if (data != 0 && age(data) == currentAge) used++;
+        }
+        return used * 1000 / sample;
+    }
+
+    public static int move(long entry) {
+        return (int) (entry & MOVE_MASK);
+    }
+
+    public static int score(long entry) {
+        return (short) (entry >>> 19);
+    }
+
+    public static int depth(long entry) {
+        return (int) ((entry >>> 35) & 0xFF);
+    }
+
+    public static int bound(long entry) {
+        return (int) ((entry >>> 43) & 0x3);
+    }
+
+    private static int age(long entry) {
+        return (int) ((entry >>> 45) & AGE_MASK);
+    }
+
+    private static long pack(int move, int score, int depth, int bound, int age) {
+        return (move & MOVE_MASK) | ((long) (score & 0xFFFF) << 19) | ((long) (depth & 0xFF) << 35)
+                | ((long) bound << 43) | ((long) age << 45);
+    }
+
+    private int bucket(long key) {
+        return (int) (key & bucketMask) * BUCKET_SLOTS;
+    }
+}
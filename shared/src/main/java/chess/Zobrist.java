@@ -0,0 +1,75 @@
+package chess;
+
+/**
+ * Random keys for Zobrist hashing. A position's key is the XOR of one key per piece on its square, plus keys for the
+ * side to move, the castling rights and the en passant file, so moving a piece only takes two XORs to update.
+ * <p>
+ * The keys come from a fixed seed, so a position hashes to the same value in every run and on every machine, which
+ * lets keys be stored and compared across processes.
+ */
+public final class Zobrist {
+
+    private static final long[][] PIECE_SQUARE = new long[Bitboards.PIECE_INDEX_COUNT][64];
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EN_PASSANT_FILE = new long[8];
+    private static final long BLACK_TO_MOVE;
+
+    static {
+        long state = 0x2F0B3C5A7D1E9F4BL;
+        for (var keys : PIECE_SQUARE) {
+            for (int square = 0; square < 64; square++) {
+                state += 0x9E3779B97F4A7C15L;
+                keys[square] = mix(state);
+            }
+        }
+        // no rights is the common case late in a game, so it contributes nothing
+        for (int rights = 1; rights < CASTLING.length; rights++) {
+            state += 0x9E3779B97F4A7C15L;
+            CASTLING[rights] = mix(state);
+        }
+        for (int file = 0; file < EN_PASSANT_FILE.length; file++) {
+            state += 0x9E3779B97F4A7C15L;
+            EN_PASSANT_FILE[file] = mix(state);
+        }
+        state += 0x9E3779B97F4A7C15L;
+        BLACK_TO_MOVE = mix(state);
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * splitmix64 finalizer
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public static long piece(ChessPiece piece, int square) {
+        return PIECE_SQUARE[Bitboards.pieceIndex(piece.getTeamColor(), piece.getPieceType())][square];
+    }
+
+    public static long piece(int pieceIndex, int square) {
+        return PIECE_SQUARE[pieceIndex][square];
+    }
+
+    /**
+     * @param rights castling rights as a bit set, see {@link ChessMoveHistory#getCastlingRights()}
+     */
+    public static long castling(int rights) {
+        return CASTLING[rights];
+    }
+
+    /**
+     * @param col the 1-based column of the en passant target square
+     */
+    public static long enPassant(int col) {
+        return EN_PASSANT_FILE[col - 1];
+    }
+
+    public static long sideToMove(ChessGame.TeamColor color) {
+        return color == ChessGame.TeamColor.BLACK ? BLACK_TO_MOVE : 0;
+    }
+}
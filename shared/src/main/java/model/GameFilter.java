@@ -0,0 +1,20 @@
+package model;
+
+/**
+ * Which games to list
+ */
+public enum GameFilter {
+    ALL,
+    /**
+     * Games that have not ended and have a seat no player has taken
+     */
+    OPEN,
+    /**
+     * Games the user plays in
+     */
+    MINE,
+    /**
+     * Games that have both players and have not ended
+     */
+    IN_PROGRESS
+}
@@ -0,0 +1,17 @@
+package model;
+
+/**
+ * The parts of a game shown in a list of games, without its board
+ */
+public record GameSummary(int gameID, String whiteUsername, String blackUsername, String gameName) {
+    public static GameSummary of(GameData gameData) {
+        return new GameSummary(gameData.gameID(), gameData.whiteUsername(), gameData.blackUsername(),
+                               gameData.gameName());
+    }
+
+    @Override
+    public String toString() {
+        return "name = '" + gameName + "', white = '" + (whiteUsername == null ? "" : whiteUsername) +
+                "', black = '" + (blackUsername == null ? "" : blackUsername) + "'";
+    }
+}
@@ -0,0 +1,7 @@
+package schema.request;
+
+/**
+ * @param millis how long to search for, or 0 for the server's default
+ */
+public record AnalysisRequest(String authToken, int gameID, long millis) {
+}
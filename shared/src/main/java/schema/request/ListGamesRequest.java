@@ -1,4 +1,21 @@
 package schema.request;
 
-public record ListGamesRequest(String authToken) {
+import model.GameFilter;
+
+/**
+ * @param filter  which games to list, or null for all of them
+ * @param afterID list only games with a higher ID, to get the page after one ending with that game
+ * @param limit   the most games to list, or 0 for the largest page the service allows
+ */
+public record ListGamesRequest(String authToken, GameFilter filter, int afterID, int limit) {
+    public ListGamesRequest(String authToken) {
+        this(authToken, null, 0, 0);
+    }
+
+    /**
+     * @return the same request for the page after the game with the given ID
+     */
+    public ListGamesRequest after(int gameID) {
+        return new ListGamesRequest(authToken, filter, gameID, limit);
+    }
 }
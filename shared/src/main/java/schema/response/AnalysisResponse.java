@@ -0,0 +1,19 @@
+package schema.response;
+
+import chess.ChessGame;
+import chess.ChessMove;
+
+/**
+ * The engine's view of a game's current position
+ *
+ * @param teamToMove the team the analysis is for
+ * @param bestMove   the suggested move, or null if the game is over
+ * @param score      centipawns from the point of view of <code>teamToMove</code>
+ * @param mateIn     moves until mate, negative if <code>teamToMove</code> is getting mated, or 0 if no mate was found
+ * @param depth      how many plies deep the search got
+ * @param nodes      how many positions were searched
+ * @param millis     how long the search took
+ */
+public record AnalysisResponse(ChessGame.TeamColor teamToMove, ChessMove bestMove, int score, int mateIn, int depth,
+                               long nodes, long millis) {
+}
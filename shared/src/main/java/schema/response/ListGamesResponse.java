@@ -1,6 +1,10 @@
 package schema.response;
 
-import model.GameData;
+import model.GameSummary;
 
-public record ListGamesResponse(GameData[] games) {
+/**
+ * @param games     the games, in order of ID
+ * @param nextAfter the <code>afterID</code> to ask for the next page with, or null if this is the last page
+ */
+public record ListGamesResponse(GameSummary[] games, Integer nextAfter) {
 }
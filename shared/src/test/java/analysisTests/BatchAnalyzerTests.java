@@ -0,0 +1,103 @@
+package analysisTests;
+
+import analysis.BatchAnalyzer;
+import analysis.PositionAnalysis;
+import chess.ChessGame;
+import chess.Fen;
+import chess.PgnReader;
+import chess.SearchLimits;
+import com.google.gson.Gson;
+import model.GameData;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+public class BatchAnalyzerTests {
+
+    @Test
+    public void analyzesEveryPosition() throws IOException, InterruptedException {
+        var pgn = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            pgn.append("[Event \"").append(i).append("\"]\n\n1. e4 e5 2. Nf3 Nc6 3. Bb5 *\n\n");
+        }
+        var out = new StringWriter();
+        try (var analyzer = new BatchAnalyzer(SearchLimits.depth(2), 3)) {
+            var progress = analyzer.analyzePgn(new PgnReader(new StringReader(pgn.toString())), out);
+            Assertions.assertEquals(20, progress.getGamesCompleted());
+            Assertions.assertEquals(0, progress.getGamesFailed());
+            Assertions.assertEquals(120, progress.getPositions());
+            Assertions.assertTrue(progress.getNodes() > 0);
+            Assertions.assertSame(progress, analyzer.getProgress());
+        }
+
+        var lines = parse(out.toString());
+        Assertions.assertEquals(120, lines.size());
+        var games = new HashSet<String>();
+        for (int i = 0; i < lines.size(); i += 6) {
+            // each game's positions are written together, in order
+            for (int ply = 0; ply < 6; ply++) {
+                Assertions.assertEquals(lines.get(i).game(), lines.get(i + ply).game());
+                Assertions.assertEquals(ply, lines.get(i + ply).ply());
+            }
+            games.add(lines.get(i).game());
+            Assertions.assertEquals(Fen.START_POSITION, lines.get(i).fen());
+            Assertions.assertEquals("e2e4", lines.get(i).played());
+            Assertions.assertNull(lines.get(i + 5).played());
+        }
+        Assertions.assertEquals(20, games.size());
+    }
+
+    @Test
+    public void analyzesStoredGames() throws IOException, InterruptedException {
+        var games = List.of(new GameData(1, null, null, "start", new ChessGame()),
+                            new GameData(2, null, null, "mate", Fen.parse("k7/8/1K6/8/8/8/8/7R w - - 0 1")));
+        var out = new StringWriter();
+        try (var analyzer = new BatchAnalyzer(SearchLimits.depth(3), 2)) {
+            analyzer.analyzeGames(games.iterator(), out);
+        }
+        var lines = parse(out.toString());
+        Assertions.assertEquals(2, lines.size());
+        var mate = lines.get(0).game().equals("2") ? lines.get(0) : lines.get(1);
+        Assertions.assertEquals("h1h8", mate.bestMove());
+        Assertions.assertEquals(1, mate.mateIn());
+    }
+
+    @Test
+    public void stopsWhenOutputFails() {
+        var pgn = "[Event \"1\"]\n\n1. e4 *\n\n[Event \"2\"]\n\n1. d4 *\n";
+        var broken = new Writer() {
+            @Override
+            public void write(char[] buffer, int offset, int length) throws IOException {
+                throw new IOException("disk full");
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        try (var analyzer = new BatchAnalyzer(SearchLimits.depth(1), 1)) {
+            Assertions.assertThrows(IOException.class,
+                                    () -> analyzer.analyzePgn(new PgnReader(new StringReader(pgn)), broken));
+        }
+    }
+
+    private static List<PositionAnalysis> parse(String output) {
+        var gson = new Gson();
+        var lines = new ArrayList<PositionAnalysis>();
+        for (var line : output.split("\n")) {
+            lines.add(gson.fromJson(line, PositionAnalysis.class));
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,75 @@
+package chessTests;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.Evaluation;
+import chess.Fen;
+import chess.InvalidMoveException;
+import chess.Perft;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+public class EvaluationTests {
+
+    @Test
+    public void startPositionIsEven() {
+        var game = new ChessGame();
+        Assertions.assertEquals(0, Evaluation.evaluate(game.getBoard(), ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(0, Evaluation.evaluate(game.getBoard(), ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    public void mirroredPositionsScoreTheSame() {
+        var white = Fen.parse("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        var black = Fen.parse("r3k2r/pppbbppp/2n2q1P/1P2p3/3pn3/BN2PNP1/P1PPQPB1/R3K2R b KQkq - 0 1");
+        Assertions.assertEquals(Evaluation.evaluate(white.getBoard(), ChessGame.TeamColor.WHITE),
+                                Evaluation.evaluate(black.getBoard(), ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    public void extraMaterialWins() {
+        var game = Fen.parse("4k3/8/8/8/8/8/8/3QK3 w - - 0 1");
+        Assertions.assertTrue(Evaluation.evaluate(game.getBoard(), ChessGame.TeamColor.WHITE) > 800);
+        Assertions.assertTrue(Evaluation.evaluate(game.getBoard(), ChessGame.TeamColor.BLACK) < -800);
+    }
+
+    @Test
+    public void incrementalMatchesScan() throws InvalidMoveException {
+        var random = new Random(240);
+        for (var reference : Perft.Reference.values()) {
+            var game = reference.game();
+            var played = 0;
+            for (int ply = 0; ply < 60; ply++) {
+                var moves = new ArrayList<ChessMove>();
+                for (int row = 1; row <= 8; row++) {
+                    for (int col = 1; col <= 8; col++) {
+                        var position = new ChessPosition(row, col);
+                        var piece = game.getBoard().getPiece(position);
+                        if (piece != null && piece.getTeamColor() == game.getTeamTurn()) {
+                            moves.addAll(game.validMoves(position));
+                        }
+                    }
+                }
+                if (moves.isEmpty()) break;
+                game.makeMove(moves.get(random.nextInt(moves.size())));
+                played++;
+                assertSameScore(game, reference.name() + " after " + played + " moves");
+            }
+            for (; played > 0; played--) {
+                game.unmakeMove();
+                assertSameScore(game, reference.name() + " taking back to " + played + " moves");
+            }
+            Assertions.assertEquals(Evaluation.evaluateFromScratch(reference.game().getBoard(), game.getTeamTurn()),
+                                    Evaluation.evaluate(game.getBoard(), game.getTeamTurn()));
+        }
+    }
+
+    private static void assertSameScore(ChessGame game, String message) {
+        Assertions.assertEquals(Evaluation.evaluateFromScratch(game.getBoard(), game.getTeamTurn()),
+                                Evaluation.evaluate(game.getBoard(), game.getTeamTurn()), message);
+    }
+}
@@ -0,0 +1,65 @@
+package chessTests;
+
+import chess.*;
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+public class GameCodecTests {
+
+    @Test
+    public void roundTripsStartingGame() {
+        var game = new ChessGame();
+        var bytes = GameCodec.encode(game);
+        Assertions.assertEquals(GameCodec.MAX_LENGTH, bytes.length);
+        Assertions.assertEquals(game, GameCodec.decode(bytes));
+        Assertions.assertTrue(bytes.length * 10 < new Gson().toJson(game).length());
+    }
+
+    @Test
+    public void roundTripsPlayedGame() throws InvalidMoveException {
+        var game = new ChessGame();
+        // the king moves and comes back, losing castling but leaving the board as it was
+        for (var san : new String[]{"e4", "c5", "Ke2", "c4", "Ke1", "d5"}) {
+            game.makeMove(PgnReader.parseSan(game, san));
+        }
+        var decoded = GameCodec.decode(GameCodec.encode(game));
+        Assertions.assertEquals(game, decoded);
+        Assertions.assertEquals(game.getZobristKey(), decoded.getZobristKey());
+        Assertions.assertEquals(Fen.format(game), Fen.format(decoded));
+        Assertions.assertEquals("rnbqkbnr/pp2pppp/8/3p4/2p1P3/8/PPPP1PPP/RNBQKBNR w kq d6 0 1", Fen.format(decoded));
+    }
+
+    @Test
+    public void roundTripsPositions() {
+        for (var fen : new String[]{"8/8/8/4k3/8/8/8/KQ6 b - - 37 1",
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w Kq - 0 1",
+                "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 1"}) {
+            var game = Fen.parse(fen);
+            Assertions.assertEquals(game, GameCodec.decode(GameCodec.encode(game)), fen);
+            Assertions.assertEquals(fen, Fen.format(GameCodec.decode(GameCodec.encode(game))));
+        }
+    }
+
+    @Test
+    public void keepsEndedGames() {
+        var game = Fen.parse("k7/1Q6/1K6/8/8/8/8/8 b - - 0 1");
+        game.endGame();
+        Assertions.assertTrue(GameCodec.decode(GameCodec.encode(game)).isEnded());
+    }
+
+    @Test
+    public void rejectsBadBytes() {
+        var bytes = GameCodec.encode(new ChessGame());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(new byte[3]));
+
+        var wrongVersion = bytes.clone();
+        wrongVersion[0] = 99;
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(wrongVersion));
+
+        var truncated = Arrays.copyOf(bytes, bytes.length - 1);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(truncated));
+    }
+}
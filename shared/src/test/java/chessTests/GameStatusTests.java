@@ -0,0 +1,52 @@
+package chessTests;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.Fen;
+import chess.InvalidMoveException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class GameStatusTests {
+
+    @Test
+    public void checkmate() {
+        var status = Fen.parse("rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3").getStatus();
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, status.teamToMove());
+        Assertions.assertTrue(status.isCheckmate());
+        Assertions.assertFalse(status.isStalemate());
+        Assertions.assertTrue(status.isGameOver());
+    }
+
+    @Test
+    public void stalemate() {
+        var status = Fen.parse("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1").getStatus();
+        Assertions.assertTrue(status.isStalemate());
+        Assertions.assertFalse(status.inCheck());
+        Assertions.assertEquals(0, status.legalMoveCount());
+    }
+
+    @Test
+    public void checkWithEscape() {
+        var status = Fen.parse("4k3/8/8/8/8/8/4R3/4K3 b - - 0 1").getStatus();
+        Assertions.assertTrue(status.inCheck());
+        Assertions.assertFalse(status.isGameOver());
+        Assertions.assertEquals(4, status.legalMoveCount());
+    }
+
+    @Test
+    public void statusFollowsMoves() throws InvalidMoveException {
+        var game = new ChessGame();
+        var status = game.getStatus();
+        Assertions.assertSame(status, game.getStatus());
+        Assertions.assertEquals(20, status.legalMoveCount());
+
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, game.getStatus().teamToMove());
+        Assertions.assertEquals(20, game.getStatus().legalMoveCount());
+
+        game.getBoard().removePiece(new ChessPosition(7, 5));
+        Assertions.assertEquals(29, game.getStatus().legalMoveCount());
+    }
+}
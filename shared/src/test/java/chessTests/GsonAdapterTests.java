@@ -0,0 +1,35 @@
+package chessTests;
+
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class GsonAdapterTests {
+
+    private final Gson gson = new Gson();
+
+    @Test
+    public void readsSharedInstances() {
+        var piece = ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT);
+        Assertions.assertSame(piece, gson.fromJson(gson.toJson(piece), ChessPiece.class));
+        var position = ChessPosition.of(3, 6);
+        Assertions.assertSame(position, gson.fromJson(gson.toJson(position), ChessPosition.class));
+    }
+
+    @Test
+    public void rejectsMalformedPiece() {
+        Assertions.assertThrows(JsonParseException.class, () -> gson.fromJson("{\"type\":\"ROOK\"}", ChessPiece.class));
+        Assertions.assertThrows(JsonParseException.class,
+                                () -> gson.fromJson("{\"type\":\"DRAGON\",\"color\":\"WHITE\"}", ChessPiece.class));
+    }
+
+    @Test
+    public void rejectsMalformedPosition() {
+        Assertions.assertThrows(JsonParseException.class, () -> gson.fromJson("{\"row\":3}", ChessPosition.class));
+        Assertions.assertThrows(JsonParseException.class, () -> gson.fromJson("{}", ChessPosition.class));
+    }
+}
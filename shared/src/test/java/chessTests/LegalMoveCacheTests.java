@@ -0,0 +1,38 @@
+package chessTests;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class LegalMoveCacheTests {
+
+    @Test
+    public void cachedMovesFollowTheBoard() {
+        var game = new ChessGame();
+        var knight = new ChessPosition(1, 2);
+        Assertions.assertEquals(2, game.validMoves(knight).size());
+        Assertions.assertEquals(game.validMoves(knight), game.validMoves(knight));
+
+        // editing the board directly changes the position key, so the cached moves are not reused
+        game.getBoard().addPiece(new ChessPosition(3, 3),
+                                 new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        Assertions.assertEquals(1, game.validMoves(knight).size());
+    }
+
+    @Test
+    public void cachedMovesFollowMoves() throws InvalidMoveException {
+        var game = new ChessGame();
+        var bishop = new ChessPosition(1, 6);
+        Assertions.assertTrue(game.validMoves(bishop).isEmpty());
+
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null));
+        Assertions.assertEquals(5, game.validMoves(bishop).size());
+        Assertions.assertThrows(InvalidMoveException.class, () -> game.makeMove(
+                new ChessMove(new ChessPosition(2, 5), new ChessPosition(3, 5), null)));
+    }
+}
@@ -0,0 +1,134 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class OpeningBookTests {
+
+    private static final ChessMove E4 = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+    private static final ChessMove D4 = new ChessMove(new ChessPosition(2, 4), new ChessPosition(4, 4), null);
+    private static final ChessMove C4 = new ChessMove(new ChessPosition(2, 3), new ChessPosition(4, 3), null);
+    private static final ChessMove E5 = new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null);
+    private static final ChessMove C5 = new ChessMove(new ChessPosition(7, 3), new ChessPosition(5, 3), null);
+    private static final ChessMove D5 = new ChessMove(new ChessPosition(7, 4), new ChessPosition(5, 4), null);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void findsWeightedMoves() throws IOException, InvalidMoveException {
+        var writer = new OpeningBookWriter();
+        writer.addGame(List.of(E4, E5), 2);
+        writer.addGame(List.of(E4, C5), 2);
+        writer.addGame(List.of(D4, D5), 2);
+        writer.add(new ChessGame(), C4, 0);
+        var book = write(writer);
+        Assertions.assertEquals(6, book.size());
+
+        var entries = book.entries(new ChessGame());
+        Assertions.assertEquals(List.of(new OpeningBook.Entry(E4, 2), new OpeningBook.Entry(D4, 1),
+                                        new OpeningBook.Entry(C4, 0)), entries);
+
+        var afterE4 = new ChessGame();
+        afterE4.makeMove(E4);
+        Assertions.assertEquals(2, book.entries(afterE4).size());
+
+        afterE4.makeMove(E5);
+        Assertions.assertTrue(book.entries(afterE4).isEmpty());
+        Assertions.assertNull(book.pick(afterE4, new Random()));
+    }
+
+    @Test
+    public void picksByWeight() throws IOException, InvalidMoveException {
+        var writer = new OpeningBookWriter();
+        writer.add(new ChessGame(), E4, 3);
+        writer.add(new ChessGame(), D4, 1);
+        writer.add(new ChessGame(), C4, 0);
+        var book = write(writer);
+
+        var random = new Random(1);
+        var e4 = 0;
+        for (int i = 0; i < 1000; i++) {
+            var move = book.pick(new ChessGame(), random);
+            Assertions.assertNotEquals(C4, move);
+            if (E4.equals(move)) e4++;
+        }
+        Assertions.assertTrue(e4 > 650 && e4 < 850, "e4 picked " + e4 + " times out of 1000");
+    }
+
+    @Test
+    public void searchesManyPositions() throws IOException, InvalidMoveException {
+        // every position in a few random games, so the binary search has plenty of keys to go through
+        var writer = new OpeningBookWriter();
+        var random = new Random(7);
+        var games = new ArrayList<ChessGame>();
+        for (int g = 0; g < 20; g++) {
+            var game = new ChessGame();
+            for (int ply = 0; ply < 30 && game.getStatus().legalMoveCount() > 0; ply++) {
+                var moves = new ArrayList<ChessMove>();
+                for (int row = 1; row <= 8; row++) {
+                    for (int col = 1; col <= 8; col++) {
+                        var piece = game.getBoard().getPiece(new ChessPosition(row, col));
+                        if (piece != null && piece.getTeamColor() == game.getTeamTurn()) {
+                            moves.addAll(game.validMoves(new ChessPosition(row, col)));
+                        }
+                    }
+                }
+                var move = moves.get(random.nextInt(moves.size()));
+                writer.add(game, move, 1);
+                games.add(new ChessGame(game));
+                game.makeMove(move);
+            }
+        }
+        var book = write(writer);
+        for (var game : games) {
+            Assertions.assertFalse(book.entries(game).isEmpty());
+        }
+    }
+
+    @Test
+    public void rejectsIllegalMoves() {
+        var writer = new OpeningBookWriter();
+        Assertions.assertThrows(InvalidMoveException.class, () -> writer.addGame(List.of(E4, E4), 2));
+    }
+
+    @Test
+    public void rejectsBadFile() throws IOException {
+        var path = directory.resolve("bad.bin");
+        Files.write(path, new byte[OpeningBook.ENTRY_BYTES + 1]);
+        Assertions.assertThrows(IOException.class, () -> OpeningBook.open(path));
+    }
+
+    @Test
+    public void searchPlaysFromBook() throws IOException, InvalidMoveException {
+        var writer = new OpeningBookWriter();
+        writer.add(new ChessGame(), D4, 1);
+        var book = write(writer);
+
+        var search = new Search(new TranspositionTable(1));
+        search.setOpeningBook(book);
+        var result = search.search(new ChessGame(), SearchLimits.depth(3));
+        Assertions.assertEquals(D4, result.bestMove());
+        Assertions.assertEquals(0, result.depth());
+
+        var afterD4 = new ChessGame();
+        afterD4.makeMove(D4);
+        Assertions.assertEquals(3, search.search(afterD4, SearchLimits.depth(3)).depth());
+    }
+
+    private OpeningBook write(OpeningBookWriter writer) throws IOException {
+        var path = directory.resolve("book.bin");
+        writer.write(path);
+        Assertions.assertEquals((long) writer.size() * OpeningBook.ENTRY_BYTES, Files.size(path));
+        return OpeningBook.open(path);
+    }
+}
@@ -0,0 +1,44 @@
+package chessTests;
+
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.Fen;
+import chess.ParallelSearch;
+import chess.Perft;
+import chess.SearchLimits;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ParallelSearchTests {
+
+    @Test
+    public void findsMateWithHelpers() {
+        try (var search = new ParallelSearch(4)) {
+            var result = search.search(Fen.parse("k7/8/2K5/8/8/8/8/7R w - - 0 1"), SearchLimits.depth(6));
+            Assertions.assertEquals(2, result.mateIn(), result.toString());
+        }
+    }
+
+    @Test
+    public void helpersStopWithMainThread() {
+        try (var search = new ParallelSearch(3)) {
+            var game = Perft.Reference.KIWIPETE.game();
+            var before = Fen.format(game);
+            for (int i = 0; i < 3; i++) {
+                var result = search.search(game, SearchLimits.time(40));
+                Assertions.assertNotNull(result.bestMove());
+                Assertions.assertTrue(result.millis() < 1000, result.toString());
+            }
+            Assertions.assertEquals(before, Fen.format(game));
+        }
+    }
+
+    @Test
+    public void singleThread() {
+        try (var search = new ParallelSearch(1)) {
+            var result = search.search(Fen.parse("4k3/8/8/3q4/8/8/3R4/3K4 w - - 0 1"), SearchLimits.depth(3));
+            Assertions.assertEquals(new ChessMove(new ChessPosition(2, 4), new ChessPosition(5, 4), null),
+                                    result.bestMove());
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package chessTests;
+
+import chess.ChessGame;
+import chess.Fen;
+import chess.Perft;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+public class PerftTests {
+
+    /**
+     * Keeps the suite fast; the deeper counts are checked by running <code>chess.Perft</code> directly
+     */
+    private static final long MAX_NODES = 1_000_000;
+
+    @ParameterizedTest
+    @EnumSource(Perft.Reference.class)
+    public void referencePositions(Perft.Reference reference) {
+        var game = reference.game();
+        for (int depth = 1; depth <= reference.maxDepth() && reference.nodes(depth) <= MAX_NODES; depth++) {
+            Assertions.assertEquals(reference.nodes(depth), Perft.perft(game, depth),
+                                    reference.name() + " at depth " + depth);
+        }
+    }
+
+    @Test
+    public void perftLeavesGameUnchanged() {
+        var game = Perft.Reference.KIWIPETE.game();
+        var before = Fen.format(game);
+        Perft.perft(game, 3);
+        Assertions.assertEquals(before, Fen.format(game));
+    }
+
+    @Test
+    public void divideAddsUpToPerft() {
+        var game = Perft.Reference.POSITION_4.game();
+        var divide = Perft.divide(game, 3);
+        Assertions.assertEquals(6, divide.size());
+        Assertions.assertEquals(Perft.perft(game, 3), divide.values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    @Test
+    public void fenRoundTrip() {
+        for (var reference : Perft.Reference.values()) {
+            var fen = Fen.format(reference.game());
+            Assertions.assertEquals(fen, Fen.format(Fen.parse(fen)));
+        }
+        Assertions.assertEquals(new ChessGame(), Fen.parse(Fen.START_POSITION));
+    }
+}
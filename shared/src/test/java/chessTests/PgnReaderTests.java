@@ -0,0 +1,77 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+public class PgnReaderTests {
+
+    private static final String GAMES = """
+            [Event "Casual"]
+            [White "Anderssen"]
+            [Black "Kieseritzky"]
+            [Result "1-0"]
+
+            1. e4 e5 2. f4 exf4 3. Bc4 Qh4+ 4. Kf1 b5 {the Immortal Game} 5. Bxb5 Nf6 6. Nf3 Qh6
+            7. d3 Nh5 8. Nh4 Qg5 9. Nf5 c6 (9... g6 10. Ng3) 10. g4 Nf6 11. Rg1 cxb5 12. h4 Qg6
+            13. h5 Qg5 14. Qf3 Ng8 15. Bxf4 Qf6 16. Nc3 Bc5 17. Nd5 Qxb2 18. Bd6 Bxg1 $4
+            19. e5 Qxa1+ 20. Ke2 Na6 21. Nxg7+ Kd8 22. Qf6+ Nxf6 23. Be7# 1-0
+
+            [Event "Promotion"]
+            [SetUp "1"]
+            [FEN "8/P6k/8/8/8/8/8/K7 w - - 0 1"]
+
+            1. a8=Q Kg6 2. Qb8 *
+            """;
+
+    @Test
+    public void readsGames() throws IOException, InvalidMoveException {
+        var reader = new PgnReader(new StringReader(GAMES));
+
+        var immortal = reader.next();
+        Assertions.assertEquals("Anderssen", immortal.tags().get("White"));
+        Assertions.assertEquals("1-0", immortal.result());
+        Assertions.assertEquals(45, immortal.moves().size());
+        var game = new ChessGame(immortal.start());
+        for (var move : immortal.moves()) {
+            game.makeMove(move);
+        }
+        Assertions.assertTrue(game.getStatus().isCheckmate());
+
+        var promotion = reader.next();
+        Assertions.assertEquals("*", promotion.result());
+        Assertions.assertEquals(3, promotion.moves().size());
+        Assertions.assertEquals(ChessPiece.PieceType.QUEEN, promotion.moves().get(0).getPromotionPiece());
+
+        Assertions.assertNull(reader.next());
+    }
+
+    @Test
+    public void parsesSan() throws InvalidMoveException {
+        var game = Fen.parse("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+        Assertions.assertEquals(new ChessMove(new ChessPosition(1, 5), new ChessPosition(1, 7), null),
+                                PgnReader.parseSan(game, "O-O"));
+        Assertions.assertEquals(new ChessMove(new ChessPosition(1, 5), new ChessPosition(1, 3), null),
+                                PgnReader.parseSan(game, "O-O-O"));
+        Assertions.assertEquals(new ChessMove(new ChessPosition(1, 1), new ChessPosition(8, 1), null),
+                                PgnReader.parseSan(game, "Rxa8+"));
+
+        Assertions.assertThrows(InvalidMoveException.class, () -> PgnReader.parseSan(game, "Nf3"));
+
+        // both rooks can reach d1
+        var rooks = Fen.parse("4k3/8/8/8/8/8/4K3/R6R w - - 0 1");
+        Assertions.assertThrows(InvalidMoveException.class, () -> PgnReader.parseSan(rooks, "Rd1"));
+        Assertions.assertEquals(new ChessMove(new ChessPosition(1, 1), new ChessPosition(1, 4), null),
+                                PgnReader.parseSan(rooks, "Rad1"));
+    }
+
+    @Test
+    public void reportsBadGames() {
+        var reader = new PgnReader(new StringReader("[Event \"Bad\"]\n\n1. e4 e4 *\n"));
+        var e = Assertions.assertThrows(IOException.class, reader::next);
+        Assertions.assertTrue(e.getMessage().contains("line 1"), e.getMessage());
+    }
+}
@@ -0,0 +1,68 @@
+package chessTests;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.Fen;
+import chess.Search;
+import chess.SearchLimits;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class SearchTests {
+
+    @Test
+    public void findsMateInOne() {
+        var result = new Search().search(Fen.parse("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1"), SearchLimits.depth(4));
+        Assertions.assertEquals(new ChessMove(new ChessPosition(1, 1), new ChessPosition(8, 1), null),
+                                result.bestMove());
+        Assertions.assertTrue(result.isMate());
+        Assertions.assertEquals(1, result.mateIn());
+    }
+
+    @Test
+    public void findsMateInTwo() {
+        // 1. Kb6 Kb8 2. Rh8#
+        var result = new Search().search(Fen.parse("k7/8/2K5/8/8/8/8/7R w - - 0 1"), SearchLimits.depth(6));
+        Assertions.assertEquals(2, result.mateIn(), result.toString());
+    }
+
+    @Test
+    public void capturesHangingQueen() {
+        var result = new Search().search(Fen.parse("4k3/8/8/3q4/8/8/3R4/3K4 w - - 0 1"), SearchLimits.depth(3));
+        Assertions.assertEquals(new ChessMove(new ChessPosition(2, 4), new ChessPosition(5, 4), null),
+                                result.bestMove());
+    }
+
+    @Test
+    public void promotesToQueen() {
+        var result = new Search().search(Fen.parse("3r4/4P3/8/8/8/k7/8/K7 w - - 0 1"), SearchLimits.depth(3));
+        Assertions.assertEquals(new ChessMove(new ChessPosition(7, 5), new ChessPosition(8, 4),
+                                              ChessPiece.PieceType.QUEEN), result.bestMove());
+    }
+
+    @Test
+    public void noMoveWhenGameIsOver() {
+        var result = new Search().search(Fen.parse("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1"), SearchLimits.depth(3));
+        Assertions.assertNull(result.bestMove());
+        Assertions.assertEquals(0, result.score());
+    }
+
+    @Test
+    public void respectsLimits() {
+        var game = new ChessGame();
+        var before = Fen.format(game);
+
+        var byNodes = new Search().search(game, SearchLimits.nodes(20_000));
+        Assertions.assertNotNull(byNodes.bestMove());
+        Assertions.assertTrue(byNodes.nodes() < 25_000, byNodes.toString());
+
+        var byTime = new Search().search(game, SearchLimits.time(50));
+        Assertions.assertNotNull(byTime.bestMove());
+        Assertions.assertTrue(byTime.depth() >= 1);
+        Assertions.assertTrue(byTime.millis() < 1000, byTime.toString());
+
+        Assertions.assertEquals(before, Fen.format(game));
+    }
+}
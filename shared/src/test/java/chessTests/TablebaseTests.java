@@ -0,0 +1,102 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class TablebaseTests {
+
+    @TempDir
+    static Path directory;
+
+    private static Tablebase tablebase;
+    private static EndgameTable queenTable;
+
+    @BeforeAll
+    public static void generate() throws IOException {
+        tablebase = new Tablebase(directory);
+        queenTable = tablebase.generate("KQvK");
+    }
+
+    @Test
+    public void solvesQueenEnding() {
+        Assertions.assertEquals("KQvK", queenTable.getName());
+        Assertions.assertEquals(2L << 18, queenTable.size());
+
+        var mateInOne = tablebase.probe(Fen.parse("k7/7Q/1K6/8/8/8/8/8 w - - 0 1"));
+        Assertions.assertEquals(new TablebaseResult(TablebaseResult.Wdl.WIN, 1), mateInOne);
+
+        var mated = tablebase.probe(Fen.parse("k7/1Q6/1K6/8/8/8/8/8 b - - 0 1"));
+        Assertions.assertEquals(new TablebaseResult(TablebaseResult.Wdl.LOSS, 0), mated);
+
+        // the king takes the undefended queen
+        var drawn = tablebase.probe(Fen.parse("kQ6/8/8/8/8/8/8/7K b - - 0 1"));
+        Assertions.assertTrue(drawn.isDraw());
+
+        var stalemate = tablebase.probe(Fen.parse("k7/2Q5/1K6/8/8/8/8/8 b - - 0 1"));
+        Assertions.assertTrue(stalemate.isDraw());
+    }
+
+    @Test
+    public void looksUpEitherColor() {
+        var white = tablebase.probe(Fen.parse("8/8/8/4k3/8/8/8/KQ6 w - - 0 1"));
+        var black = tablebase.probe(Fen.parse("kq6/8/8/8/4K3/8/8/8 b - - 0 1"));
+        Assertions.assertEquals(TablebaseResult.Wdl.WIN, white.wdl());
+        Assertions.assertEquals(white, black);
+        Assertions.assertTrue(white.mateIn() <= 10);
+    }
+
+    @Test
+    public void coversOnlyWhatItHas() {
+        Assertions.assertTrue(tablebase.probe(Fen.parse("8/8/8/4k3/8/8/8/K7 w - - 0 1")).isDraw());
+        Assertions.assertNull(tablebase.probe(Fen.parse("8/8/8/4k3/8/8/8/KR6 w - - 0 1")));
+        // the tables assume castling is no longer allowed
+        Assertions.assertNull(tablebase.probe(Fen.parse("4k3/8/8/8/8/8/8/3QK3 w K - 0 1")));
+        Assertions.assertNotNull(tablebase.probe(Fen.parse("4k3/8/8/8/8/8/8/3QK3 w - - 0 1")));
+    }
+
+    @Test
+    public void opensWrittenTables() {
+        var reopened = new Tablebase(directory);
+        var game = Fen.parse("8/8/8/4k3/8/8/8/KQ6 b - - 0 1");
+        Assertions.assertEquals(tablebase.probe(game), reopened.probe(game));
+    }
+
+    @Test
+    public void treatsBrokenTableAsMissing(@TempDir Path brokenDirectory) throws IOException {
+        Files.write(brokenDirectory.resolve("KRvK" + Tablebase.EXTENSION), new byte[10]);
+        var broken = new Tablebase(brokenDirectory);
+        var game = Fen.parse("8/8/8/4k3/8/8/8/KR6 w - - 0 1");
+        Assertions.assertNull(broken.probe(game));
+        // the failed open is remembered rather than retried
+        Assertions.assertNull(broken.probe(game));
+    }
+
+    @Test
+    public void rejectsBadNames() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> tablebase.generate("KvKQ"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> tablebase.generate("KPvKP"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> tablebase.generate("KQX"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> tablebase.generate("KQRBNvK"));
+    }
+
+    @Test
+    public void searchPlaysPerfectly() throws InvalidMoveException {
+        var search = new Search(new TranspositionTable(1));
+        search.setTablebase(tablebase);
+        var game = Fen.parse("8/8/8/4k3/8/8/8/KQ6 w - - 0 1");
+        var expected = tablebase.probe(game).plies();
+        for (int ply = 0; ply < expected; ply++) {
+            var result = search.search(game, SearchLimits.depth(20));
+            Assertions.assertEquals(1, result.depth());
+            game.makeMove(result.bestMove());
+        }
+        Assertions.assertTrue(game.getStatus().isCheckmate());
+    }
+}
@@ -0,0 +1,61 @@
+package chessTests;
+
+import chess.Move;
+import chess.TranspositionTable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TranspositionTableTests {
+
+    @Test
+    public void sizedInMegabytes() {
+        Assertions.assertEquals(1 << 16, new TranspositionTable(1).capacity());
+        Assertions.assertEquals(4 << 16, new TranspositionTable(5).capacity());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                                () -> new TranspositionTable(TranspositionTable.MAX_MEGABYTES + 1));
+    }
+
+    @Test
+    public void storesAndCounts() {
+        var table = new TranspositionTable(1);
+        var move = Move.encode(12, 28, Move.DOUBLE_PUSH);
+        Assertions.assertEquals(0, table.probe(42));
+        table.store(42, move, -29_950, 7, TranspositionTable.LOWER);
+
+        var entry = table.probe(42);
+        Assertions.assertEquals(move, TranspositionTable.move(entry));
+        Assertions.assertEquals(-29_950, TranspositionTable.score(entry));
+        Assertions.assertEquals(7, TranspositionTable.depth(entry));
+        Assertions.assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(entry));
+        Assertions.assertEquals(1, table.getHits());
+        Assertions.assertEquals(1, table.getMisses());
+
+        // a shallower bound from the same search does not overwrite, but keeps the move when it has none
+        table.store(42, Move.NONE, 10, 3, TranspositionTable.UPPER);
+        Assertions.assertEquals(7, TranspositionTable.depth(table.probe(42)));
+        table.store(42, Move.NONE, 10, 3, TranspositionTable.EXACT);
+        Assertions.assertEquals(move, TranspositionTable.move(table.probe(42)));
+    }
+
+    @Test
+    public void oldEntriesAreReplacedFirst() {
+        var table = new TranspositionTable(1);
+        var buckets = table.capacity() / 4;
+        // five keys in one bucket: the deeper entry from the previous search goes before the current ones
+        table.store(1, Move.NONE, 0, 10, TranspositionTable.EXACT);
+        table.newSearch();
+        for (int i = 1; i <= 4; i++) {
+            table.store(1 + i * buckets, Move.NONE, 0, 5, TranspositionTable.EXACT);
+        }
+        Assertions.assertEquals(0, table.probe(1));
+        for (int i = 1; i <= 4; i++) {
+            Assertions.assertNotEquals(0, table.probe(1 + i * buckets));
+        }
+        Assertions.assertTrue(table.hashfull() > 0);
+
+        table.clear();
+        Assertions.assertEquals(0, table.probe(1 + buckets));
+        Assertions.assertEquals(0, table.getHits());
+    }
+}
@@ -0,0 +1,66 @@
+package chessTests;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.Fen;
+import chess.InvalidMoveException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class UnmakeMoveTests {
+
+    @Test
+    public void unmakeRestoresEveryMoveKind() throws InvalidMoveException {
+        // castling, en passant, promotion with capture and a quiet rook move from one position
+        var fen = "r3k2r/1P6/8/3pP3/8/8/8/R3K2R w KQkq d6 4 1";
+        var moves = new ChessMove[]{
+                new ChessMove(new ChessPosition(1, 5), new ChessPosition(1, 7), null),
+                new ChessMove(new ChessPosition(1, 5), new ChessPosition(1, 3), null),
+                new ChessMove(new ChessPosition(5, 5), new ChessPosition(6, 4), null),
+                new ChessMove(new ChessPosition(7, 2), new ChessPosition(8, 1), ChessPiece.PieceType.QUEEN),
+                new ChessMove(new ChessPosition(1, 8), new ChessPosition(1, 6), null),
+        };
+        for (var move : moves) {
+            var game = Fen.parse(fen);
+            var key = game.getZobristKey();
+            game.makeMove(move);
+            Assertions.assertNotEquals(key, game.getZobristKey(), move.toString());
+            game.unmakeMove();
+            Assertions.assertEquals(fen, Fen.format(game), move.toString());
+            Assertions.assertEquals(Fen.parse(fen), game, move.toString());
+            Assertions.assertEquals(key, game.getZobristKey(), move.toString());
+        }
+    }
+
+    @Test
+    public void unmakeSeveralMoves() throws InvalidMoveException {
+        var game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+        game.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+        Assertions.assertTrue(Fen.format(game).endsWith(" KQkq - 2 1"));
+
+        game.unmakeMove();
+        game.unmakeMove();
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+        Assertions.assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1", Fen.format(game));
+        game.unmakeMove();
+        Assertions.assertEquals(new ChessGame(), game);
+        Assertions.assertThrows(InvalidMoveException.class, game::unmakeMove);
+    }
+
+    @Test
+    public void validMovesFollowUnmake() throws InvalidMoveException {
+        var game = new ChessGame();
+        var bishop = new ChessPosition(1, 6);
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null));
+        Assertions.assertEquals(5, game.validMoves(bishop).size());
+
+        game.unmakeMove();
+        game.unmakeMove();
+        Assertions.assertTrue(game.validMoves(bishop).isEmpty());
+    }
+}